@@ -0,0 +1,192 @@
+/* --- Copyright (c) Chris Rathman 1999. All rights reserved. -----------------
+ > File:        jasper/Attribute.java
+ > Purpose:     Base abstract class for all attributes
+ > Author:      Chris Rathman, 12 June 1999
+ > Version:     1.00
+ */
+package jasper;
+import java.io.*;
+
+/*=======================================================================
+ = Class:         Attribute                                             =
+ =                                                                      =
+ = Desc:          abstract class for attributes (polymorphic behavior)  =
+ =======================================================================*/
+abstract class Attribute {
+   protected Pool_Collection pool;             // constant pool table
+   protected int attributeIndex;               // attribute name (index into constant pool table)
+   protected int length;                       // length of the attribute in bytes
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          set the values for the common fields                  -
+    -----------------------------------------------------------------------*/
+   public Attribute(ClassBuffer ios, Pool_Collection pool, int attributeIndex) throws IOException {
+      // set common variables for the attribute
+      this.pool = pool;
+      this.attributeIndex = attributeIndex;
+
+      // read the length of the attribute
+      length = ios.readInt();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getLabel                                              -
+    -                                                                      -
+    - Desc:          default to no labels needed by attribute              -
+    -                overridden by subclass: Attribute_LocalVariableTable  -
+    -----------------------------------------------------------------------*/
+   void getLabel(Code_Collection code) {
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        decode                                                -
+    -                                                                      -
+    - Desc:          default to attribute being read in by the constructor -
+    -                overridden by subclass: Code_Collection               -
+    -----------------------------------------------------------------------*/
+   void decode() throws IOException {
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        codeCursor                                            -
+    -                                                                      -
+    - Desc:          default to attribute holding no code                  -
+    -                overridden by subclass: Code_Collection               -
+    -----------------------------------------------------------------------*/
+   boolean codeCursor(Code_Cursor cursor) {
+      return false;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getLineNumberTable                                    -
+    -                                                                      -
+    - Desc:          default to attribute not being a line number table    -
+    -                overridden by subclass: Attribute_LineNumberTable     -
+    -----------------------------------------------------------------------*/
+   Attribute_LineNumberTable getLineNumberTable() {
+      return null;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        jasmin                                                -
+    -                                                                      -
+    - Desc:          default to no output to jasmin assembly file          -
+    -                overridden by subclasses: Attribute_SourceFile;       -
+    -                   Attribute_Exceptions; Attribute_LocalVariableTable;-
+    -                   Code_Collection                                    -
+    -----------------------------------------------------------------------*/
+   void jasmin(Jasmin_Writer out) throws IOException {
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        jasminSourceFile                                      -
+    -                                                                      -
+    - Desc:          default to no source file name for attribute          -
+    -                overridden by subclass: Attribute_SourceFile          -
+    -----------------------------------------------------------------------*/
+   String jasminSourceFile() {
+      return "";
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        jasminConstantValue                                   -
+    -                                                                      -
+    - Desc:          default to no constant value string for attribute     -
+    -                overridden by subclass: Attribute_ConstantValue       -
+    -----------------------------------------------------------------------*/
+   String jasminConstantValue() {
+      return "";
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseSourceFile                                      -
+    -                                                                      -
+    - Desc:          default to no source file name for attribute          -
+    -                overridden by subclass: Attribute_SourceFile          -
+    -----------------------------------------------------------------------*/
+   String browseSourceFile() {
+      return "";
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseDeprecated                                      -
+    -                                                                      -
+    - Desc:          default to no deprecated string for attribute         -
+    -                overridden by subclass: Attribute_Deprecated          -
+    -----------------------------------------------------------------------*/
+   String browseDeprecated() {
+      return "";
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseSynthetic                                       -
+    -                                                                      -
+    - Desc:          default to no synthetic string for attribute          -
+    -                overridden by subclass: Attribute_Synthetic           -
+    -----------------------------------------------------------------------*/
+   String browseSynthetic() {
+      return "";
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseConstantValue                                   -
+    -                                                                      -
+    - Desc:          default to no constant value string for attribute     -
+    -                overridden by subclass: Attribute_ConstantValue       -
+    -----------------------------------------------------------------------*/
+   String browseConstantValue() {
+      return "";
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseExceptions                                      -
+    -                                                                      -
+    - Desc:          default to no exception throws for attribute          -
+    -                overridden by subclass: Attribute_Exception           -
+    -----------------------------------------------------------------------*/
+   String[] browseExceptions() {
+      return null;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseInnerClasses                                    -
+    -                                                                      -
+    - Desc:          default to no inner classes for attribute             -
+    -                overridden by subclass: Attribute_InnerClasses        -
+    -----------------------------------------------------------------------*/
+   String[][] browseInnerClasses() {
+      return null;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseFieldrefs                                       -
+    -                                                                      -
+    - Desc:          default to no fields referenced for attribute         -
+    -                overridden by subclass: Code_Collection               -
+    -----------------------------------------------------------------------*/
+   String[] browseFieldrefs() {
+      return null;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseMethodrefs                                      -
+    -                                                                      -
+    - Desc:          default to no methods referenced for attribute        -
+    -                overridden by subclass: Code_Collection               -
+    -----------------------------------------------------------------------*/
+   String[] browseMethodrefs() {
+      return null;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseInterfaceMethodrefs                             -
+    -                                                                      -
+    - Desc:          default to no interfaces referenced for attribute     -
+    -                overridden by subclass: Code_Collection               -
+    -----------------------------------------------------------------------*/
+   String[] browseInterfaceMethodrefs() {
+      return null;
+   }
+}
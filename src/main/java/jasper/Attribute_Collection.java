@@ -6,7 +6,6 @@
  */
 package jasper;
 import java.io.*;
-import java.lang.reflect.*;
 
 /*
  * Note: You may want to break these classes into seperate source files.  The java compiler issues
@@ -52,79 +51,72 @@ class Attribute_Collection {
     -                                                                      -
     - Desc:          read in the attribute definitions from input stream   -
     -----------------------------------------------------------------------*/
-   Attribute_Collection(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Attribute_Collection(ClassBuffer ios, Pool_Collection pool) throws IOException {
       // get the number of methods
-      count  = ios.readShort();
+      count  = ios.readUnsignedShort();
 
-      // read in the attributes - use reflection to dispatch to the appropriate class
+      // read in the attributes - dispatch to the appropriate class by attribute name
       attributes = new Attribute[count];
       for (int i = 0; i < count; i++) {
          // get the attribute name (index into constant pool table)
-         int attributeIndex = ios.readShort();
-         try {
-            Constructor myConstructor;
-
-            // get subclass that handles the attribute
-            Class newClass = getDispatch(pool.toString(attributeIndex));
-            try {
-               // for some reason this technique is not working in JDK1.2?
-               myConstructor = newClass.getConstructor(new Class[]
-                  {ios.getClass(), pool.getClass(), int.class});
-            } catch (NoSuchMethodException e) {
-               // since there is only one constructor, we can use this technique if above fails
-               myConstructor = newClass.getDeclaredConstructors()[0];
-            }
-
-            // read in the attribute
-            attributes[i] = (Attribute)myConstructor.newInstance(new Object[]
-               {ios, pool, new Integer(attributeIndex)});
-
-         } catch (InstantiationException e) {
-            throw new IOException("InstantiationException");
-
-         } catch (IllegalAccessException e) {
-            throw new IOException("IllegalAccessException");
-
-         } catch (InvocationTargetException e) {
-            throw new IOException("InvocationTargetException");
-         }
+         int attributeIndex = ios.readUnsignedShort();
+
+         // read in the attribute
+         attributes[i] = getDispatch(pool, attributeIndex).newAttribute(ios, pool, attributeIndex);
       }
    }
 
    /*-----------------------------------------------------------------------
     - Method:        getDispatch                                           -
     -                                                                      -
-    - Desc:          get the class name that handles the attribute         -
+    - Desc:          get the constructor for the class that handles the    -
+    -                attribute - the name is resolved once per constant    -
+    -                pool index and remembered by the pool                 -
     -----------------------------------------------------------------------*/
-   static Class getDispatch(String s) {
-      // look for a match of the attribute name in the static array
-      for (int i = 1; i < dispatch.length; i++) {
-         if (s.equals((String)dispatch[i][0])) return (Class)dispatch[i][1];
+   static Attribute_Factory getDispatch(Pool_Collection pool, int attributeIndex) {
+      Attribute_Factory retVal = pool.getAttributeFactory(attributeIndex);
+      if (retVal == null) {
+         retVal = getDispatch(pool.toString(attributeIndex));
+         pool.setAttributeFactory(attributeIndex, retVal);
       }
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getDispatch                                           -
+    -                                                                      -
+    - Desc:          get the constructor for the class that handles the    -
+    -                attribute name                                        -
+    -----------------------------------------------------------------------*/
+   static Attribute_Factory getDispatch(String s) {
+      // look for a match of the attribute name in the hash table
+      Attribute_Factory retVal = dispatch.get(s);
 
       // if dispatch class not found then use Attribute_Unknown class
-      return (Class)dispatch[0][1];
+      if (retVal == null) retVal = Attribute_Unknown::new;
+      return retVal;
    }
 
    /*-----------------------------------------------------------------------
     - Field:         dispatch                                              -
     -                                                                      -
-    - Desc:          array used to dispatch for object instantiation       -
-    -                   element[i][0] = attribute name in class file       -
-    -                   element[i][1] = class name that handles attribute  -
+    - Desc:          hash table used to dispatch for object instantiation  -
+    -                   key   = attribute name in class file               -
+    -                   value = constructor for class handling attribute   -
     -----------------------------------------------------------------------*/
-   private static Object[][] dispatch = {
-      {"",                   Attribute_Unknown.class},
-      {"Code",               Code_Collection.class},
-      {"ConstantValue",      Attribute_ConstantValue.class},
-      {"Deprecated",         Attribute_Deprecated.class},
-      {"Exceptions",         Attribute_Exceptions.class},
-      {"InnerClasses",       Attribute_InnerClasses.class},
-      {"LineNumberTable",    Attribute_LineNumberTable.class},
-      {"LocalVariableTable", Attribute_LocalVariableTable.class},
-      {"SourceFile",         Attribute_SourceFile.class},
-      {"Synthetic",          Attribute_Synthetic.class}
-   };
+   private static final java.util.HashMap<String, Attribute_Factory> dispatch =
+      new java.util.HashMap<String, Attribute_Factory>();
+   static {
+      dispatch.put("Code",               Code_Collection::new);
+      dispatch.put("ConstantValue",      Attribute_ConstantValue::new);
+      dispatch.put("Deprecated",         Attribute_Deprecated::new);
+      dispatch.put("Exceptions",         Attribute_Exceptions::new);
+      dispatch.put("InnerClasses",       Attribute_InnerClasses::new);
+      dispatch.put("LineNumberTable",    Attribute_LineNumberTable::new);
+      dispatch.put("LocalVariableTable", Attribute_LocalVariableTable::new);
+      dispatch.put("SourceFile",         Attribute_SourceFile::new);
+      dispatch.put("Synthetic",          Attribute_Synthetic::new);
+   }
 
    /*-----------------------------------------------------------------------
     - Method:        getLabel                                              -
@@ -136,16 +128,39 @@ class Attribute_Collection {
    }
 
    /*-----------------------------------------------------------------------
-    - Method:        getLineNumberTable                                    -
+    - Method:        decode                                                -
     -                                                                      -
-    - Desc:          get line numbers from LineNumberTable attribute       -
+    - Desc:          read in what the attributes skipped over (the Code)   -
     -----------------------------------------------------------------------*/
-   int[] getLineNumberTable(int pc) {
+   void decode() throws IOException {
+      for (int i = 0; i < count; i++) attributes[i].decode();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        codeCursor                                            -
+    -                                                                      -
+    - Desc:          point the cursor at the code from the Code attribute  -
+    -----------------------------------------------------------------------*/
+   boolean codeCursor(Code_Cursor cursor) {
       for (int i = 0; i < count; i++) {
-         int[] retVal = attributes[i].getLineNumberTable(pc);
-         if (retVal != null) return retVal;
+         if (attributes[i].codeCursor(cursor)) return true;
       }
-      return null;
+      return false;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getLineNumberTables                                   -
+    -                                                                      -
+    - Desc:          get the LineNumberTable attributes (in file order)    -
+    -----------------------------------------------------------------------*/
+   Attribute_LineNumberTable[] getLineNumberTables() {
+      int n = 0;
+      for (int i = 0; i < count; i++) if (attributes[i].getLineNumberTable() != null) n++;
+      Attribute_LineNumberTable[] retVal = new Attribute_LineNumberTable[n];
+      for (int i = 0, j = 0; i < count; i++) {
+         if (attributes[i].getLineNumberTable() != null) retVal[j++] = attributes[i].getLineNumberTable();
+      }
+      return retVal;
    }
 
    /*-----------------------------------------------------------------------
@@ -153,7 +168,7 @@ class Attribute_Collection {
     -                                                                      -
     - Desc:          output to jasmin file (action specific to attribute)  -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
+   void jasmin(Jasmin_Writer out) throws IOException {
       for (int i = 0; i < count; i++) attributes[i].jasmin(out);
    }
 
@@ -289,180 +304,6 @@ class Attribute_Collection {
    }
 }
 
-/* --- Copyright (c) Chris Rathman 1999. All rights reserved. -----------------
- > File:        jasper/Attribute.java
- > Purpose:     Base abstract class for all attributes
- > Author:      Chris Rathman, 12 June 1999
- > Version:     1.00
- */
-//package jasper;
-//import java.io.*;
-
-/*=======================================================================
- = Class:         Attribute                                             =
- =                                                                      =
- = Desc:          abstract class for attributes (polymorphic behavior)  =
- =======================================================================*/
-abstract class Attribute {
-   protected Pool_Collection pool;             // constant pool table
-   protected int attributeIndex;               // attribute name (index into constant pool table)
-   protected int length;                       // length of the attribute in bytes
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          set the values for the common fields                  -
-    -----------------------------------------------------------------------*/
-   public Attribute(DataInputStream ios, Pool_Collection pool, int attributeIndex) throws IOException {
-      // set common variables for the attribute
-      this.pool = pool;
-      this.attributeIndex = attributeIndex;
-
-      // read the length of the attribute
-      int length = ios.readInt();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        getLabel                                              -
-    -                                                                      -
-    - Desc:          default to no labels needed by attribute              -
-    -                overridden by subclass: Attribute_LocalVariableTable  -
-    -----------------------------------------------------------------------*/
-   void getLabel(Code_Collection code) {
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        getLineNumberTable                                    -
-    -                                                                      -
-    - Desc:          default to no line numbers for attribute              -
-    -                overridden by subclass: Attribute_LineNumberTable     -
-    -----------------------------------------------------------------------*/
-   int[] getLineNumberTable(int pc) {
-      return null;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          default to no output to jasmin assembly file          -
-    -                overridden by subclasses: Attribute_SourceFile;       -
-    -                   Attribute_Exceptions; Attribute_LocalVariableTable;-
-    -                   Code_Collection                                    -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasminSourceFile                                      -
-    -                                                                      -
-    - Desc:          default to no source file name for attribute          -
-    -                overridden by subclass: Attribute_SourceFile          -
-    -----------------------------------------------------------------------*/
-   String jasminSourceFile() {
-      return "";
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasminConstantValue                                   -
-    -                                                                      -
-    - Desc:          default to no constant value string for attribute     -
-    -                overridden by subclass: Attribute_ConstantValue       -
-    -----------------------------------------------------------------------*/
-   String jasminConstantValue() {
-      return "";
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseSourceFile                                      -
-    -                                                                      -
-    - Desc:          default to no source file name for attribute          -
-    -                overridden by subclass: Attribute_SourceFile          -
-    -----------------------------------------------------------------------*/
-   String browseSourceFile() {
-      return "";
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseDeprecated                                      -
-    -                                                                      -
-    - Desc:          default to no deprecated string for attribute         -
-    -                overridden by subclass: Attribute_Deprecated          -
-    -----------------------------------------------------------------------*/
-   String browseDeprecated() {
-      return "";
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseSynthetic                                       -
-    -                                                                      -
-    - Desc:          default to no synthetic string for attribute          -
-    -                overridden by subclass: Attribute_Synthetic           -
-    -----------------------------------------------------------------------*/
-   String browseSynthetic() {
-      return "";
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseConstantValue                                   -
-    -                                                                      -
-    - Desc:          default to no constant value string for attribute     -
-    -                overridden by subclass: Attribute_ConstantValue       -
-    -----------------------------------------------------------------------*/
-   String browseConstantValue() {
-      return "";
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseExceptions                                      -
-    -                                                                      -
-    - Desc:          default to no exception throws for attribute          -
-    -                overridden by subclass: Attribute_Exception           -
-    -----------------------------------------------------------------------*/
-   String[] browseExceptions() {
-      return null;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseInnerClasses                                    -
-    -                                                                      -
-    - Desc:          default to no inner classes for attribute             -
-    -                overridden by subclass: Attribute_InnerClasses        -
-    -----------------------------------------------------------------------*/
-   String[][] browseInnerClasses() {
-      return null;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseFieldrefs                                       -
-    -                                                                      -
-    - Desc:          default to no fields referenced for attribute         -
-    -                overridden by subclass: Code_Collection               -
-    -----------------------------------------------------------------------*/
-   String[] browseFieldrefs() {
-      return null;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseMethodrefs                                      -
-    -                                                                      -
-    - Desc:          default to no methods referenced for attribute        -
-    -                overridden by subclass: Code_Collection               -
-    -----------------------------------------------------------------------*/
-   String[] browseMethodrefs() {
-      return null;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseInterfaceMethodrefs                             -
-    -                                                                      -
-    - Desc:          default to no interfaces referenced for attribute     -
-    -                overridden by subclass: Code_Collection               -
-    -----------------------------------------------------------------------*/
-   String[] browseInterfaceMethodrefs() {
-      return null;
-   }
-}
-
 /* --- Copyright (c) Chris Rathman 1999. All rights reserved. -----------------
  > File:        jasper/Attribute_ConstantValue.java
  > Purpose:     ConstantValue attribute for static final fields
@@ -485,12 +326,12 @@ class Attribute_ConstantValue extends Attribute {
     -                                                                      -
     - Desc:          read the attribute info from the input stream         -
     -----------------------------------------------------------------------*/
-   public Attribute_ConstantValue(DataInputStream ios, Pool_Collection pool, int attributeIndex) throws IOException {
+   public Attribute_ConstantValue(ClassBuffer ios, Pool_Collection pool, int attributeIndex) throws IOException {
       // set the common variables
       super(ios, pool, attributeIndex);
 
       // get the constant value (index into constant pool table)
-      constantIndex = ios.readShort();
+      constantIndex = ios.readUnsignedShort();
    }
 
    /*-----------------------------------------------------------------------
@@ -533,7 +374,7 @@ class Attribute_Deprecated extends Attribute {
     -                                                                      -
     - Desc:          read the attribute info from the input stream         -
     -----------------------------------------------------------------------*/
-   public Attribute_Deprecated(DataInputStream ios, Pool_Collection pool, int attributeIndex) throws IOException {
+   public Attribute_Deprecated(ClassBuffer ios, Pool_Collection pool, int attributeIndex) throws IOException {
       // set the common variables
       super(ios, pool, attributeIndex);
 
@@ -574,16 +415,16 @@ class Attribute_Exceptions extends Attribute {
     -                                                                      -
     - Desc:          read the attribute info from the input stream         -
     -----------------------------------------------------------------------*/
-   public Attribute_Exceptions(DataInputStream ios, Pool_Collection pool, int attributeIndex) throws IOException {
+   public Attribute_Exceptions(ClassBuffer ios, Pool_Collection pool, int attributeIndex) throws IOException {
       // set the common variables
       super(ios, pool, attributeIndex);
 
       // get the number of exceptions in the throws clause
-      count = ios.readShort();
+      count = ios.readUnsignedShort();
 
       // read in the class names of the exceptions (index into constant pool table)
       exceptionIndex = new int[count];
-      for (int i = 0; i < count; i++) exceptionIndex[i] = ios.readShort();
+      for (int i = 0; i < count; i++) exceptionIndex[i] = ios.readUnsignedShort();
    }
 
    /*-----------------------------------------------------------------------
@@ -591,9 +432,9 @@ class Attribute_Exceptions extends Attribute {
     -                                                                      -
     - Desc:          output the .throws directives to the jasmin file      -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
+   void jasmin(Jasmin_Writer out) throws IOException {
       for (int i = 0; i < count; i++) {
-         out.println(ClassFile.pad("   .throws", ClassFile.SPACER) + pool.toString(exceptionIndex[i]));
+         out.print("   .throws").pad(ClassFile.SPACER).println(pool.toString(exceptionIndex[i]));
       }
    }
 
@@ -635,12 +476,12 @@ class Attribute_InnerClasses extends Attribute {
     -                                                                      -
     - Desc:          read the attribute info from the input stream         -
     -----------------------------------------------------------------------*/
-   public Attribute_InnerClasses(DataInputStream ios, Pool_Collection pool, int attributeIndex) throws IOException {
+   public Attribute_InnerClasses(ClassBuffer ios, Pool_Collection pool, int attributeIndex) throws IOException {
       // set the common variables
       super(ios, pool, attributeIndex);
 
       // get the number of InnerClasses
-      count = ios.readShort();
+      count = ios.readUnsignedShort();
 
       // allocate the arrays to hold the inner class information
       innerIndex = new int[count];
@@ -650,13 +491,13 @@ class Attribute_InnerClasses extends Attribute {
 
       for (int i = 0; i < count; i++) {
          // get the class name of the inner class
-         innerIndex[i] = ios.readShort();
+         innerIndex[i] = ios.readUnsignedShort();
 
          // get the class of which the inner class is a member
-         outerIndex[i] = ios.readShort();
+         outerIndex[i] = ios.readUnsignedShort();
 
          // get the simple class name of the inner class
-         nameIndex[i] = ios.readShort();
+         nameIndex[i] = ios.readUnsignedShort();
 
          // get the access permissions of the inner class
          accessFlags[i] = ios.readShort();
@@ -683,66 +524,6 @@ class Attribute_InnerClasses extends Attribute {
    }
 }
 
-/* --- Copyright (c) Chris Rathman 1999. All rights reserved. -----------------
- > File:        jasper/LineNumberTable.java
- > Purpose:     LineNumberTable attribute for the code collection
- > Author:      Chris Rathman, 12 June 1999
- > Version:     1.00
- */
-//package jasper;
-//import java.io.*;
-
-/*=======================================================================
- = Class:         Attribute_LineNumberTable                             =
- =                                                                      =
- = Desc:          LocalVariableTable attribute (Code)                   =
- =======================================================================*/
-class Attribute_LineNumberTable extends Attribute {
-   private int count;                  // number of entries in the table
-   private int[] pc;                   // program counter associated with the source line number
-   private int[] lineNum;              // line number in the java source file
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read the attribute info from the input stream         -
-    -----------------------------------------------------------------------*/
-   public Attribute_LineNumberTable(DataInputStream ios, Pool_Collection pool, int attributeIndex) throws IOException {
-      // set the common variables
-      super(ios, pool, attributeIndex);
-
-      // get the number of entries
-      count = ios.readShort();
-
-      // allocate the arrays to hold the line number entries
-      pc = new int[count];
-      lineNum = new int[count];
-
-      for (int i = 0; i < count; i++) {
-         // get the program counter
-         pc[i] = ios.readShort();
-
-         // get the java source line number
-         lineNum[i] = ios.readShort();
-      }
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        getLineNumberTable                                    -
-    -                                                                      -
-    - Desc:          source line numbers for given program counter         -
-    -----------------------------------------------------------------------*/
-   int[] getLineNumberTable(int pc) {
-      // note that more than one source line can be associated with a single pc
-      int lineCount = 0;
-      for (int i = 0; i < count; i++) if (this.pc[i] == pc) ++lineCount;
-      if (lineCount == 0) return null;
-      int[] lines = new int[lineCount];
-      for (int i = 0, n = 0; i < count; i++) if (this.pc[i] == pc) lines[n++] = lineNum[i];
-      return lines;
-   }
-}
-
 /* --- Copyright (c) Chris Rathman 1999. All rights reserved. -----------------
  > File:        jasper/Attribute_LocalVariableTable.java
  > Purpose:     LocalVariableTable attribute for the code collection
@@ -770,12 +551,12 @@ class Attribute_LocalVariableTable extends Attribute {
     -                                                                      -
     - Desc:          read the attribute info from the input stream         -
     -----------------------------------------------------------------------*/
-   public Attribute_LocalVariableTable(DataInputStream ios, Pool_Collection pool, int attributeIndex) throws IOException {
+   public Attribute_LocalVariableTable(ClassBuffer ios, Pool_Collection pool, int attributeIndex) throws IOException {
       // set the common variables
       super(ios, pool, attributeIndex);
 
       // get number of entries in this local variable table
-      count = ios.readShort();
+      count = ios.readUnsignedShort();
 
       // allocate arrays to hold entries
       startPC = new int[count];
@@ -786,19 +567,19 @@ class Attribute_LocalVariableTable extends Attribute {
 
       for (int i = 0; i < count; i++) {
          // get program counter start for local variable
-         startPC[i] = ios.readShort();
+         startPC[i] = ios.readUnsignedShort();
 
          // get length of local variable usage (relative to startPC)
-         len[i] = ios.readShort();
+         len[i] = ios.readUnsignedShort();
 
          // get name of the local variable (index into constant pool table)
-         nameIndex[i] = ios.readShort();
+         nameIndex[i] = ios.readUnsignedShort();
 
          // get type of the local variable (index into constant pool table)
-         descriptorIndex[i] = ios.readShort();
+         descriptorIndex[i] = ios.readUnsignedShort();
 
          // get local variable table index in the java bytecode
-         varIndex[i] = ios.readShort();
+         varIndex[i] = ios.readUnsignedShort();
       }
    }
 
@@ -822,12 +603,11 @@ class Attribute_LocalVariableTable extends Attribute {
     -                                                                      -
     - Desc:          output the .local directives to the jasmin file       -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
+   void jasmin(Jasmin_Writer out) throws IOException {
       for (int i = 0; i < count; i++) {
-         out.println(ClassFile.pad("   .var " + varIndex[i] + " is ", ClassFile.SPACER) +
-             pool.toString(nameIndex[i]) + " " + pool.toString(descriptorIndex[i]) +
-             " from " + Code_Collection.toLabel(startPC[i]) +
-             " to " + Code_Collection.toLabel(startPC[i] + len[i]));
+         out.print("   .var ").print(varIndex[i]).print(" is ").pad(ClassFile.SPACER);
+         out.print(pool.toString(nameIndex[i])).print(' ').print(pool.toString(descriptorIndex[i]));
+         out.print(" from ").label(startPC[i]).print(" to ").label(startPC[i] + len[i]).println();
       }
    }
 }
@@ -854,12 +634,12 @@ class Attribute_SourceFile extends Attribute {
     -                                                                      -
     - Desc:          read the attribute info from the input stream         -
     -----------------------------------------------------------------------*/
-   public Attribute_SourceFile(DataInputStream ios, Pool_Collection pool, int attributeIndex) throws IOException {
+   public Attribute_SourceFile(ClassBuffer ios, Pool_Collection pool, int attributeIndex) throws IOException {
       // set the common variables
       super(ios, pool, attributeIndex);
 
       // get the source file name
-      sourceIndex = ios.readShort();
+      sourceIndex = ios.readUnsignedShort();
    }
 
    /*-----------------------------------------------------------------------
@@ -867,8 +647,8 @@ class Attribute_SourceFile extends Attribute {
     -                                                                      -
     - Desc:          output the .source directive to the jasmin file       -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
-      out.println(ClassFile.pad(".source", ClassFile.SPACER) + jasminSourceFile());
+   void jasmin(Jasmin_Writer out) throws IOException {
+      out.print(".source").pad(ClassFile.SPACER).println(jasminSourceFile());
    }
 
    /*-----------------------------------------------------------------------
@@ -911,7 +691,7 @@ class Attribute_Synthetic extends Attribute {
     -                                                                      -
     - Desc:          read the attribute info from the input stream         -
     -----------------------------------------------------------------------*/
-   public Attribute_Synthetic(DataInputStream ios, Pool_Collection pool, int attributeIndex) throws IOException {
+   public Attribute_Synthetic(ClassBuffer ios, Pool_Collection pool, int attributeIndex) throws IOException {
       // set the common variables
       super(ios, pool, attributeIndex);
 
@@ -944,20 +724,35 @@ class Attribute_Synthetic extends Attribute {
  = Desc:          Unknown attribute (Field, Method, Code, Class)        =
  =======================================================================*/
 class Attribute_Unknown extends Attribute {
+   private ClassBuffer source;         // class file bytes
+   private int offset;                 // offset of the attribute info in the class file
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
-    - Desc:          read the attribute info from the input stream         -
+    - Desc:          skip over the attribute info by its length - the      -
+    -                bytes stay in the class file buffer until dumped      -
     -----------------------------------------------------------------------*/
-   public Attribute_Unknown(DataInputStream ios, Pool_Collection pool, int attributeIndex) throws IOException {
+   public Attribute_Unknown(ClassBuffer ios, Pool_Collection pool, int attributeIndex) throws IOException {
       // set the common variables
       super(ios, pool, attributeIndex);
 
-      // echo that jasper doesn't currently handle the attribute
-      System.out.println("Undefined Attribute (length=" + length + ") (name=" + this.toString() + ")");
+      // remember where the attribute info is and go past it
+      source = ios;
+      offset = ios.pos;
+      ios.skip(length);
 
-      // do a hex dump of the attributes (mostly for debugging)
-      ClassFile.dump(ios, length);
+      if (pool.getOptions().dump) dump();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        dump                                                  -
+    -                                                                      -
+    - Desc:          echo that jasper doesn't currently handle the         -
+    -                attribute, and hex dump it (mostly for debugging)     -
+    -----------------------------------------------------------------------*/
+   void dump() {
+      System.out.println("Undefined Attribute (length=" + length + ") (name=" + this.toString() + ")");
+      ClassFile.dump(source.at(offset), length);
    }
 }
@@ -0,0 +1,17 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Attribute_Factory.java
+ > Purpose:     Constructor of an Attribute subclass, looked up by name
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+import java.io.*;
+
+/*=======================================================================
+ = Interface:     Attribute_Factory                                     =
+ =                                                                      =
+ = Desc:          constructs the Attribute subclass for an attribute    =
+ =======================================================================*/
+interface Attribute_Factory {
+   Attribute newAttribute(ClassBuffer ios, Pool_Collection pool, int attributeIndex) throws IOException;
+}
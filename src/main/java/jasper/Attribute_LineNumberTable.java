@@ -0,0 +1,104 @@
+/* --- Copyright (c) Chris Rathman 1999. All rights reserved. -----------------
+ > File:        jasper/Attribute_LineNumberTable.java
+ > Purpose:     LineNumberTable attribute for the code collection
+ > Author:      Chris Rathman, 12 June 1999
+ > Version:     1.00
+ */
+package jasper;
+import java.io.*;
+
+/*=======================================================================
+ = Class:         Attribute_LineNumberTable                             =
+ =                                                                      =
+ = Desc:          LineNumberTable attribute (Code)                      =
+ =======================================================================*/
+class Attribute_LineNumberTable extends Attribute {
+   private int count;                  // number of entries in the table
+   private int[] pc;                   // program counter associated with the source line number (ascending)
+   private int[] lineNum;              // line number in the java source file
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          read the attribute info from the input stream         -
+    -----------------------------------------------------------------------*/
+   public Attribute_LineNumberTable(ClassBuffer ios, Pool_Collection pool, int attributeIndex) throws IOException {
+      // set the common variables
+      super(ios, pool, attributeIndex);
+
+      // get the number of entries
+      count = ios.readUnsignedShort();
+
+      // allocate the arrays to hold the line number entries
+      pc = new int[count];
+      lineNum = new int[count];
+
+      boolean sorted = true;
+      for (int i = 0; i < count; i++) {
+         // get the program counter
+         pc[i] = ios.readUnsignedShort();
+
+         // get the java source line number
+         lineNum[i] = ios.readUnsignedShort();
+
+         if ((i > 0) && (pc[i] < pc[i-1])) sorted = false;
+      }
+
+      // order the entries by pc (lines sharing a pc stay in file order)
+      if (!sorted) {
+         long[] entry = new long[count];
+         for (int i = 0; i < count; i++) entry[i] = ((long)pc[i] << 32) | i;
+         java.util.Arrays.sort(entry);
+         int[] line = new int[count];
+         for (int i = 0; i < count; i++) {
+            pc[i] = (int)(entry[i] >>> 32);
+            line[i] = lineNum[(int)entry[i]];
+         }
+         lineNum = line;
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getLineNumberTable                                    -
+    -                                                                      -
+    - Desc:          flag that this attribute holds the line numbers       -
+    -----------------------------------------------------------------------*/
+   Attribute_LineNumberTable getLineNumberTable() {
+      return this;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        seek                                                  -
+    -                                                                      -
+    - Desc:          move entry index i forward to the first entry at or   -
+    -                after the program counter                             -
+    -----------------------------------------------------------------------*/
+   int seek(int i, int pc) {
+      while ((i < count) && (this.pc[i] < pc)) i++;
+      return i;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        isLine                                                -
+    -                                                                      -
+    - Desc:          test if entry index i is for the program counter      -
+    -----------------------------------------------------------------------*/
+   boolean isLine(int i, int pc) {
+      return (i < count) && (this.pc[i] == pc);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        jasmin                                                -
+    -                                                                      -
+    - Desc:          output the .line directives for the program counter   -
+    -                starting at entry index i (returns the next index)    -
+    -                note that more than one source line can be            -
+    -                associated with a single pc                           -
+    -----------------------------------------------------------------------*/
+   int jasmin(Jasmin_Writer out, int i, int pc) {
+      for (; isLine(i, pc); i++) {
+         out.print("   .line").pad(ClassFile.SPACER).print(lineNum[i]).println();
+      }
+      return i;
+   }
+}
@@ -0,0 +1,204 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/ClassBuffer.java
+ > Purpose:     Class file bytes held in memory and decoded by offset
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+import java.io.*;
+
+/*=======================================================================
+ = Class:         ClassBuffer                                           =
+ =                                                                      =
+ = Desc:          the bytes of a class file loaded into a single array. =
+ =                values are decoded straight from the array at the     =
+ =                current offset (big endian, as DataInputStream does)  =
+ =======================================================================*/
+class ClassBuffer {
+   final byte[] buf;                   // bytes holding the class file
+   final int start;                    // offset of the first byte of the class file in buf
+   final int end;                      // offset just past the last byte of the class file in buf
+   int pos;                            // offset of the next byte to be read
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          wrap the class file held in buf[start..end)           -
+    -----------------------------------------------------------------------*/
+   ClassBuffer(byte[] buf, int start, int end) {
+      this.buf = buf;
+      this.start = start;
+      this.end = end;
+      this.pos = start;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        offset                                                -
+    -                                                                      -
+    - Desc:          byte offset of the next read from start of class file -
+    -----------------------------------------------------------------------*/
+   int offset() {
+      return pos - start;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        remaining                                             -
+    -                                                                      -
+    - Desc:          number of bytes left to be read                       -
+    -----------------------------------------------------------------------*/
+   int remaining() {
+      return end - pos;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        need                                                  -
+    -                                                                      -
+    - Desc:          make sure that n more bytes can be read               -
+    -----------------------------------------------------------------------*/
+   private void need(int n) throws EOFException {
+      if ((n < 0) || (end - pos < n)) {
+         pos = end;
+         throw new EOFException("Unexpected end of class file at offset " + offset());
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        read                                                  -
+    -                                                                      -
+    - Desc:          read an unsigned byte (-1 if at the end of the file)  -
+    -----------------------------------------------------------------------*/
+   int read() {
+      if (pos >= end) return -1;
+      return buf[pos++] & 0xff;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readUnsignedByte                                      -
+    -                                                                      -
+    - Desc:          read an unsigned byte                                 -
+    -----------------------------------------------------------------------*/
+   int readUnsignedByte() throws IOException {
+      need(1);
+      return buf[pos++] & 0xff;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readShort                                             -
+    -                                                                      -
+    - Desc:          read a signed 16-bit value                            -
+    -----------------------------------------------------------------------*/
+   short readShort() throws IOException {
+      need(2);
+      short retVal = (short)(((buf[pos] & 0xff) << 8) | (buf[pos+1] & 0xff));
+      pos += 2;
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readUnsignedShort                                     -
+    -                                                                      -
+    - Desc:          read an unsigned 16-bit value                         -
+    -----------------------------------------------------------------------*/
+   int readUnsignedShort() throws IOException {
+      need(2);
+      int retVal = ((buf[pos] & 0xff) << 8) | (buf[pos+1] & 0xff);
+      pos += 2;
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readChar                                              -
+    -                                                                      -
+    - Desc:          read a 16-bit unicode character                       -
+    -----------------------------------------------------------------------*/
+   char readChar() throws IOException {
+      return (char)readUnsignedShort();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readInt                                               -
+    -                                                                      -
+    - Desc:          read a signed 32-bit value                            -
+    -----------------------------------------------------------------------*/
+   int readInt() throws IOException {
+      need(4);
+      int retVal = getInt(pos);
+      pos += 4;
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readLong                                              -
+    -                                                                      -
+    - Desc:          read a signed 64-bit value                            -
+    -----------------------------------------------------------------------*/
+   long readLong() throws IOException {
+      need(8);
+      long retVal = ((long)getInt(pos) << 32) | (getInt(pos+4) & 0xffffffffL);
+      pos += 8;
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readFloat                                             -
+    -                                                                      -
+    - Desc:          read a 32-bit floating point value                    -
+    -----------------------------------------------------------------------*/
+   float readFloat() throws IOException {
+      return Float.intBitsToFloat(readInt());
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readDouble                                            -
+    -                                                                      -
+    - Desc:          read a 64-bit floating point value                    -
+    -----------------------------------------------------------------------*/
+   double readDouble() throws IOException {
+      return Double.longBitsToDouble(readLong());
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        skip                                                  -
+    -                                                                      -
+    - Desc:          skip over bytes (stops at the end of the file)        -
+    -----------------------------------------------------------------------*/
+   int skip(int n) {
+      if (n <= 0) return 0;
+      if (n > end - pos) n = end - pos;
+      pos += n;
+      return n;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        skipBytes                                             -
+    -                                                                      -
+    - Desc:          skip over bytes that must be present in the file (a   -
+    -                negative count - a length of 2^31 or more read from   -
+    -                the file - is past the end too)                       -
+    -----------------------------------------------------------------------*/
+   void skipBytes(int n) throws IOException {
+      need(n);
+      pos += n;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        at                                                    -
+    -                                                                      -
+    - Desc:          new cursor over the same bytes at an absolute offset  -
+    -----------------------------------------------------------------------*/
+   ClassBuffer at(int offset) {
+      ClassBuffer retVal = new ClassBuffer(buf, start, end);
+      retVal.pos = offset;
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getInt                                                -
+    -                                                                      -
+    - Desc:          signed 32-bit value at an absolute offset in buf      -
+    -----------------------------------------------------------------------*/
+   int getInt(int offset) {
+      return ((buf[offset] & 0xff) << 24) | ((buf[offset+1] & 0xff) << 16) |
+         ((buf[offset+2] & 0xff) << 8) | (buf[offset+3] & 0xff);
+   }
+}
@@ -6,7 +6,7 @@
  */
 package jasper;
 import java.io.*;
-import java.util.zip.*;
+import java.nio.ByteBuffer;
 
 /*=======================================================================
  = Class:         ClassFile                                             =
@@ -35,9 +35,16 @@ public class ClassFile implements Serializable {
     - Desc:          construct object by reading in java class file        -
     -----------------------------------------------------------------------*/
    public ClassFile(String name) {
-      DataInputStream ios = null;
-      ZipInputStream zip = null;
-      ZipEntry zin = null;
+      this(name, new Class_Options());
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          read in java class file, sharing the options of a run -
+    -----------------------------------------------------------------------*/
+   public ClassFile(String name, Class_Options options) {
+      byte[] bytes = null;
 
       // normalize the file name to expected format
       String fileName = parseFileDir(name) + parseFileName(name) + "." + parseFileExt(name);
@@ -45,42 +52,86 @@ public class ClassFile implements Serializable {
       System.out.println("Reading:   " + fileName);
 
       try {
-         FIND: {
-            // first check if the file is in the current directory
-            File f = new File(fileName);
-            if (f.exists()) {
-               ios = new DataInputStream(new FileInputStream(fileName));
-               break FIND;
+         // first check if the file is in the current directory
+         File f = new File(fileName);
+         if (f.exists()) {
+            InputStream ios = new FileInputStream(f);
+            try {
+               bytes = readBytes(ios);
+            } finally {
+               ios.close();
             }
-
+         } else {
             // now check if the file is anywhere in the class path (or in a jar file)
-            String[] classPath = getClassPath();
-            for (int i = 0; i < classPath.length; i++) {
-               f = new File(classPath[i]);
-               if (f.exists()) {
-                  if (f.isFile()) {
-                     // I'm assuming that any files specified in the class path must be jars
-                     zip = new ZipInputStream(new FileInputStream(classPath[i]));
-                     for (zin = zip.getNextEntry(); zin != null; zin = zip.getNextEntry()) {
-                        if (zin.getName().equals(className)) {
-                           ios = new DataInputStream(zip);
-                           break FIND;
-                        }
-                     }
-                  } else if (f.isDirectory()) {
-                     // if class path is directory check if file found along that path
-                     f = new File(classPath[i] + File.separatorChar + fileName);
-                     if (f.isFile()) {
-                        ios = new DataInputStream(new FileInputStream(f));
-                        break FIND;
-                     }
-                  }
-               }
-            }
-            // if we get to this pount then throw file not found exception
-            if (ios == null) throw new FileNotFoundException(fileName);
+            bytes = Source_Collection.getClassPath().read(className);
          }
 
+         // if we get to this pount then throw file not found exception
+         if (bytes == null) throw new FileNotFoundException(fileName);
+
+      } catch (IOException e) {
+         // report the error
+         System.out.println(e);
+         return;
+      }
+
+      // decode the class file
+      read(new ClassBuffer(bytes, 0, bytes.length), options);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          construct object from the bytes of a java class file  -
+    -----------------------------------------------------------------------*/
+   public ClassFile(byte[] bytes) {
+      this(bytes, new Class_Options());
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          construct object from the bytes, sharing the options  -
+    -----------------------------------------------------------------------*/
+   public ClassFile(byte[] bytes, Class_Options options) {
+      read(new ClassBuffer(bytes, 0, bytes.length), options);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          construct object from the remaining bytes of a buffer -
+    -                (the position of the buffer is left unchanged)        -
+    -----------------------------------------------------------------------*/
+   public ClassFile(ByteBuffer bytes) {
+      this(bytes, new Class_Options());
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          construct object from the buffer, sharing the options -
+    -----------------------------------------------------------------------*/
+   public ClassFile(ByteBuffer bytes, Class_Options options) {
+      if (bytes.hasArray()) {
+         // decode in place from the array behind the buffer
+         int start = bytes.arrayOffset() + bytes.position();
+         read(new ClassBuffer(bytes.array(), start, start + bytes.remaining()), options);
+      } else {
+         // direct or read-only buffer - take a copy of the bytes
+         byte[] copy = new byte[bytes.remaining()];
+         bytes.duplicate().get(copy);
+         read(new ClassBuffer(copy, 0, copy.length), options);
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        read                                                  -
+    -                                                                      -
+    - Desc:          decode the class file held in the buffer              -
+    -----------------------------------------------------------------------*/
+   private void read(ClassBuffer ios, Class_Options options) {
+      try {
          // read the magic bytes - abort if not a class file
          magic = ios.readInt();
          if (magic != 0xcafebabe) throw new IOException("File is not a java class file.");
@@ -90,16 +141,16 @@ public class ClassFile implements Serializable {
          majorVersion = ios.readShort();
 
          // read the constant pool (symbol table area)
-         pool = new Pool_Collection(ios);
+         pool = new Pool_Collection(ios, options);
 
          // read the class access flags
          accessFlags = ios.readShort();
 
          // get the name of this class (index into constant pool)
-         thisClass = ios.readShort();
+         thisClass = ios.readUnsignedShort();
 
          // get the name of the super class (index into constant pool)
-         superClass = ios.readShort();
+         superClass = ios.readUnsignedShort();
 
          // read the interfaces that are implemented
          interfaces = new Interface_Collection(ios, pool);
@@ -111,27 +162,45 @@ public class ClassFile implements Serializable {
          methods = new Method_Collection(ios, pool);
 
          // read the attributes (SourceFile)
-         attributes = new Attribute_Collection(ios, pool);
+         Attribute_Collection classAttributes = new Attribute_Collection(ios, pool);
 
-      } catch (FileNotFoundException e) {
-         // report the error
-         System.out.println(e);
+         // now that the file has been scanned, read in the code of the methods
+         methods.decode(ios);
+         attributes = classAttributes;
 
       } catch (IOException e) {
          // report the error
          System.out.println(e);
 
          // dump the remaining bytes of the file as hex output (useful for debugging)
-         dump(ios,  Integer.MAX_VALUE);
+         dump(ios, ios.remaining());
       }
    }
 
+   /*-----------------------------------------------------------------------
+    - Method:        isLoaded                                              -
+    -                                                                      -
+    - Desc:          test if the class file was read in without error      -
+    -----------------------------------------------------------------------*/
+   public boolean isLoaded() {
+      return attributes != null;
+   }
+
    /*-----------------------------------------------------------------------
     - Method:        accessString                                          -
     -                                                                      -
     - Desc:          build a string for the class access flags             -
     -----------------------------------------------------------------------*/
    private String accessString() {
+      return accessString(accessFlags);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        accessString                                          -
+    -                                                                      -
+    - Desc:          build a string for the given class access flags       -
+    -----------------------------------------------------------------------*/
+   static String accessString(int accessFlags) {
       String retVal = "";
       if ((accessFlags & 0x0001) > 0) retVal += "public ";
       if ((accessFlags & 0x0010) > 0) retVal += "final ";
@@ -146,47 +215,18 @@ public class ClassFile implements Serializable {
     -----------------------------------------------------------------------*/
    public void jasmin() {
       try{
-         // jasmine uses a ".j" extension by default
-         String name = browseClass() + ".j";
-         String fileName = parseFileDir(name) + parseFileName(name) + "." + parseFileExt(name);
+         String fileName = jasminFileName();
 
          // make sure there is a place to put it
-         if (!parseFileDir(name).equals("")) {
-            // test if directory for the class exists
-            File f = new File("jasper.out" + File.separatorChar + parseFileDir(name));
-            fileName = "jasper.out" + File.separatorChar + fileName;
-
-            // if the directory path does exist, then create it under the current directory
-            if (!f.exists()) f.mkdirs();
-         }
+         makeDirectory(fileName);
 
          // open up the output stream to write the file
-         PrintStream out = new PrintStream(new FileOutputStream(fileName));
-
-         // print the .source directive
-         attributes.jasmin(out);
-
-         // print the .class or .interface directive
-         if ((accessFlags & 0x0200) > 0) {
-            out.print(pad(".interface", SPACER));
-         } else {
-            out.print(pad(".class", SPACER));
+         OutputStream out = new FileOutputStream(fileName);
+         try {
+            jasmin(out);
+         } finally {
+            out.close();
          }
-         out.println(accessString() + pool.toString(thisClass));
-
-         // print the .super directive
-         if (superClass > 0) out.println(pad(".super", SPACER) + pool.toString(superClass));
-
-         // print the .implements directives
-         interfaces.jasmin(out);
-         out.println("");
-
-         // print the .field directives
-         fields.jasmin(out);
-         out.println("");
-
-         // print the .method directives
-         methods.jasmin(out);
 
          // echo that the jasmine file has been completed
          System.out.println("Generated: " + fileName);
@@ -197,6 +237,89 @@ public class ClassFile implements Serializable {
       }
    }
 
+   /*-----------------------------------------------------------------------
+    - Method:        jasminFileName                                        -
+    -                                                                      -
+    - Desc:          name of the jasmin assembly file                      -
+    -----------------------------------------------------------------------*/
+   public String jasminFileName() {
+      // jasmine uses a ".j" extension by default
+      String name = browseClass() + ".j";
+      String fileName = parseFileDir(name) + parseFileName(name) + "." + parseFileExt(name);
+
+      // classes in a package go under the output directory
+      if (!parseFileDir(name).equals("")) fileName = "jasper.out" + File.separatorChar + fileName;
+      return fileName;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        makeDirectory                                         -
+    -                                                                      -
+    - Desc:          create the directory for the file if need be          -
+    -----------------------------------------------------------------------*/
+   static void makeDirectory(String fileName) {
+      // test if directory for the file exists
+      File f = new File(fileName).getParentFile();
+
+      // if the directory path does exist, then create it under the current directory
+      if ((f != null) && !f.exists()) f.mkdirs();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        jasmin                                                -
+    -                                                                      -
+    - Desc:          output the jasmin assembly to the stream (the stream  -
+    -                is flushed but left open)                             -
+    -----------------------------------------------------------------------*/
+   public void jasmin(OutputStream stream) throws IOException {
+      Jasmin_Writer out = new Jasmin_Writer(stream);
+      jasmin(out);
+      out.flush();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        jasmin                                                -
+    -                                                                      -
+    - Desc:          output the jasmin assembly                            -
+    -----------------------------------------------------------------------*/
+   void jasmin(Jasmin_Writer out) throws IOException {
+      // print the .source directive
+      attributes.jasmin(out);
+
+      // print the .class (or .interface) and .super directives
+      jasminClass(out, pool, accessFlags, thisClass, superClass);
+
+      // print the .implements directives
+      interfaces.jasmin(out);
+      out.println();
+
+      // print the .field directives
+      fields.jasmin(out);
+      out.println();
+
+      // print the .method directives
+      methods.jasmin(out);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        jasminClass                                           -
+    -                                                                      -
+    - Desc:          output the .class (or .interface) and .super          -
+    -                directives                                            -
+    -----------------------------------------------------------------------*/
+   static void jasminClass(Jasmin_Writer out, Pool_Collection pool, int accessFlags, int thisClass,
+         int superClass) {
+      // print the .class or .interface directive
+      if ((accessFlags & 0x0200) > 0) {
+         out.print(".interface").pad(SPACER);
+      } else {
+         out.print(".class").pad(SPACER);
+      }
+      out.print(accessString(accessFlags)).println(pool.toString(thisClass));
+
+      // print the .super directive
+      if (superClass > 0) out.print(".super").pad(SPACER).println(pool.toString(superClass));
+   }
 
    /*-----------------------------------------------------------------------
     - Method:        browseSourceFile                                      -
@@ -292,6 +415,44 @@ public class ClassFile implements Serializable {
       return methods.browseInterfaceMethodrefs();
    }
 
+   /*-----------------------------------------------------------------------
+    - Method:        codeCursor                                            -
+    -                                                                      -
+    - Desc:          cursor over the instructions of a method (indexed as  -
+    -                browseMethods), or null if the method has no code     -
+    -----------------------------------------------------------------------*/
+   public Code_Cursor codeCursor(int method) {
+      Code_Cursor retVal = new Code_Cursor();
+      return codeCursor(method, retVal) ? retVal : null;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        codeCursor                                            -
+    -                                                                      -
+    - Desc:          point a cursor at the instructions of a method (false -
+    -                if the method has no code) - reusing one cursor for   -
+    -                every method keeps a walk free of allocation          -
+    -----------------------------------------------------------------------*/
+   public boolean codeCursor(int method, Code_Cursor cursor) {
+      return methods.codeCursor(method, cursor);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        classReferences                                       -
+    -                                                                      -
+    - Desc:          internal names of the classes the class refers to     -
+    -                (e.g. "java/lang/Object"), each listed once in the    -
+    -                order first met in the constant pool, then the field  -
+    -                and method types                                      -
+    -----------------------------------------------------------------------*/
+   public String[] classReferences() {
+      java.util.LinkedHashSet<String> refs = new java.util.LinkedHashSet<String>();
+      pool.classReferences(refs);
+      fields.classReferences(refs);
+      methods.classReferences(refs);
+      return refs.toArray(new String[refs.size()]);
+   }
+
    /*-----------------------------------------------------------------------
     - Method:        pad                                                   -
     -                                                                      -
@@ -299,9 +460,10 @@ public class ClassFile implements Serializable {
     -                String class would give me this automatically.        -
     -----------------------------------------------------------------------*/
    public static String pad(String s, int pad) {
-      StringBuffer a = new StringBuffer(pad);
-      for (int i = 0; i < pad; i++) a = a.append(" ");
-      return s + a.substring(s.length());
+      if (s.length() >= pad) return s;
+      StringBuilder a = new StringBuilder(pad).append(s);
+      while (a.length() < pad) a.append(' ');
+      return a.toString();
    }
 
    /*-----------------------------------------------------------------------
@@ -314,31 +476,6 @@ public class ClassFile implements Serializable {
       return pad(n + "", pad);
    }
 
-   /*-----------------------------------------------------------------------
-    - Method:        getClassPath                                          -
-    -                                                                      -
-    - Desc:          get the java class path                               -
-    -----------------------------------------------------------------------*/
-   private String[] getClassPath() {
-      java.util.Vector x = new java.util.Vector();
-      String classPath = System.getProperty("java.class.path");
-      String s = "";
-      for (int i = 0; i < classPath.length(); i++) {
-         if (classPath.charAt(i) == ';') {
-            x.add(s);
-            s = "";
-         } else {
-            s += classPath.charAt(i);
-         }
-      }
-      if (!s.equals("")) x.add(s);
-      String javaHome = System.getProperty("java.home");
-      if (javaHome != null) x.add(javaHome + File.separatorChar + "lib" + File.separatorChar + "rt.jar");
-      String[] retVal = new String[x.size()];
-      x.copyInto(retVal);
-      return retVal;
-   }
-
    /*-----------------------------------------------------------------------
     - Method:        parseFileDir                                          -
     -                                                                      -
@@ -401,6 +538,18 @@ public class ClassFile implements Serializable {
       return fileExt;
    }
 
+   /*-----------------------------------------------------------------------
+    - Method:        readBytes                                             -
+    -                                                                      -
+    - Desc:          read an input stream through to the end               -
+    -----------------------------------------------------------------------*/
+   static byte[] readBytes(InputStream ios) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+      byte[] buf = new byte[8192];
+      for (int n = ios.read(buf); n >= 0; n = ios.read(buf)) out.write(buf, 0, n);
+      return out.toByteArray();
+   }
+
    /*-----------------------------------------------------------------------
     - Method:        dump                                                  -
     -                                                                      -
@@ -432,4 +581,33 @@ public class ClassFile implements Serializable {
          System.out.println(e);
       }
    }
+
+   /*-----------------------------------------------------------------------
+    - Method:        dump                                                  -
+    -                                                                      -
+    - Desc:          hex dump of the class file bytes (stops at the end of -
+    -                the class file)                                       -
+    -----------------------------------------------------------------------*/
+   static void dump(ClassBuffer ios, int length) {
+      String s;
+      String a = "";
+      for (int i = 0, j = 0; i < length; i++) {
+         int val = ios.read();
+         if (val < 0) break;
+         if (j == 0) {
+            System.out.println("  " + a);
+            a = "";
+            s = Integer.toHexString(i);
+            s = s + "      ".substring(s.length());
+            System.out.print(s + "  ");
+         }
+         if (j == 8) System.out.print("  ");
+         s = Integer.toHexString(val);
+         if (s.length() < 2) s = "0" + s;
+         System.out.print(s + " ");
+         if ((val > 32) && (val < 128)) a += (char)val; else a += ' ';
+         if (++j == 16) j = 0;
+      }
+      System.out.println("");
+   }
 }
@@ -0,0 +1,95 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Class_List.java
+ > Purpose:     Ordered list of the class files to be read
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+
+/*=======================================================================
+ = Class:         Class_List                                            =
+ =                                                                      =
+ = Desc:          class files in the order they are to be read, plus a  =
+ =                set of every name ever added.  the set makes the      =
+ =                already-read check constant time, and may be read by  =
+ =                worker threads while the list is added to.  only one  =
+ =                thread adds to a list                                 =
+ =======================================================================*/
+final class Class_List {
+   private java.util.ArrayList<String> list = new java.util.ArrayList<String>();     // names in read order
+   private java.util.Set<String> visited =
+      java.util.concurrent.ConcurrentHashMap.<String>newKeySet();                     // names in the list
+
+   /*-----------------------------------------------------------------------
+    - Field:         primitives                                            -
+    -                                                                      -
+    - Desc:          types that have no class file associated with them    -
+    -----------------------------------------------------------------------*/
+   private static final java.util.HashSet<String> primitives = new java.util.HashSet<String>(
+      java.util.Arrays.asList(".class", "byte.class", "short.class", "int.class", "long.class",
+         "boolean.class", "float.class", "double.class", "char.class", "void.class"));
+
+   /*-----------------------------------------------------------------------
+    - Method:        add                                                   -
+    -                                                                      -
+    - Desc:          add the class file to the end of the list (false if   -
+    -                it is already in the list or has no class file)       -
+    -----------------------------------------------------------------------*/
+   boolean add(String name) {
+      String fileName = fileName(name);
+      if ((fileName == null) || !visited.add(fileName)) return false;
+      list.add(fileName);
+      return true;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        contains                                              -
+    -                                                                      -
+    - Desc:          test if the class file has been added to the list     -
+    -                (safe to call from any thread)                        -
+    -----------------------------------------------------------------------*/
+   boolean contains(String name) {
+      String fileName = fileName(name);
+      return (fileName == null) || visited.contains(fileName);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        size                                                  -
+    -                                                                      -
+    - Desc:          number of class files in the list                     -
+    -----------------------------------------------------------------------*/
+   int size() {
+      return list.size();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        elementAt                                             -
+    -                                                                      -
+    - Desc:          class file at the index                               -
+    -----------------------------------------------------------------------*/
+   String elementAt(int index) {
+      return list.get(index);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        fileName                                              -
+    -                                                                      -
+    - Desc:          normalized class file name (null for primitive types) -
+    -----------------------------------------------------------------------*/
+   private static String fileName(String name) {
+      String fileName = Jasper.normalize(name);
+
+      // array classes (e.g. "[Ljava/lang/String;") stand for their element class
+      if (fileName.startsWith("[")) {
+         int i = 0;
+         while ((i < fileName.length()) && (fileName.charAt(i) == '[')) i++;
+         int j = fileName.indexOf(';', i);
+         if ((i >= fileName.length()) || (fileName.charAt(i) != 'L') || (j < 0)) return null;
+         fileName = fileName.substring(i + 1, j) + ".class";
+      }
+
+      // don't add the primitive types since there is no class file associated with them
+      if (primitives.contains(fileName)) return null;
+      return fileName;
+   }
+}
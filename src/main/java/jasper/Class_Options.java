@@ -0,0 +1,53 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Class_Options.java
+ > Purpose:     Settings and shared tables for a run of class files
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+
+/*=======================================================================
+ = Class:         Class_Options                                         =
+ =                                                                      =
+ = Desc:          what the class files read together share.  a run of   =
+ =                jasper makes one, so its symbols are pooled across    =
+ =                the run and freed with it.  a class file read without =
+ =                options gets its own                                  =
+ =======================================================================*/
+public final class Class_Options {
+   final Symbol_Table symbols = new Symbol_Table();         // names and strings of the class files read
+   final boolean dump;                                      // echo and hex dump the attributes jasper
+                                                            //    does not handle (-dump option)
+   final java.util.concurrent.ForkJoinPool workers;         // threads for the methods of large classes
+                                                            //    (null = one method at a time)
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          default options - no dump, methods read one at a time -
+    -----------------------------------------------------------------------*/
+   public Class_Options() {
+      this(false, 1);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          options for the dump flag and number of threads (the  -
+    -                methods of large classes are split among the threads  -
+    -                when there is more than one)                          -
+    -----------------------------------------------------------------------*/
+   public Class_Options(boolean dump, int threads) {
+      this.dump = dump;
+      workers = (threads > 1) ? new java.util.concurrent.ForkJoinPool(threads) : null;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        close                                                 -
+    -                                                                      -
+    - Desc:          stop the threads (the options can't be used after)    -
+    -----------------------------------------------------------------------*/
+   public void close() {
+      if (workers != null) workers.shutdownNow();
+   }
+}
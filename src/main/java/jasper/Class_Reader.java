@@ -0,0 +1,324 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Class_Reader.java
+ > Purpose:     Walks a class file and reports its parts to a visitor
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+import java.io.*;
+
+/*=======================================================================
+ = Class:         Class_Reader                                          =
+ =                                                                      =
+ = Desc:          reads a class file straight from its bytes, calling   =
+ =                the visitor for each part in file order.  only the    =
+ =                positions of the constants are noted up front - the   =
+ =                constants themselves are decoded when getString asks  =
+ =                for them, and parts the visitor skips are passed over =
+ =                by their length.  e.g. the super class of a class:    =
+ =                                                                      =
+ =                   reader.accept(new Class_Visitor() {                =
+ =                      public boolean visitHeader(Class_Reader reader, =
+ =                            int minor, int major, int access,         =
+ =                            int thisClass, int superClass) {          =
+ =                         name = reader.getString(superClass);         =
+ =                         reader.stop();                               =
+ =                         return false;                                =
+ =                      }                                               =
+ =                   });                                                =
+ =======================================================================*/
+public final class Class_Reader {
+   private ClassBuffer bytes;          // class file bytes
+   private Pool_Collection pool;       // constant pool table (entries decoded when first used)
+   private int minorVersion;           // compiler minor version number
+   private int majorVersion;           // compiler major version number
+   private int accessFlags;            // access flags for class
+   private int thisClass;              // class name (index into constant pool table)
+   private int superClass;             // super class name (index into constant pool table)
+   private int body;                   // offset of the interfaces (just past the header)
+   private boolean stopped;            // the visitor asked for the read to end
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          read the header of the class file held in the array   -
+    -                (the array is read in place, not copied)              -
+    -----------------------------------------------------------------------*/
+   public Class_Reader(byte[] bytes) throws IOException {
+      this(bytes, new Class_Options());
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          read the header, sharing the options of a run         -
+    -----------------------------------------------------------------------*/
+   public Class_Reader(byte[] bytes, Class_Options options) throws IOException {
+      this.bytes = new ClassBuffer(bytes, 0, bytes.length);
+      ClassBuffer ios = this.bytes.at(0);
+
+      // read the magic bytes - abort if not a class file
+      if (ios.readInt() != 0xcafebabe) throw new IOException("File is not a java class file.");
+
+      // read the compiler version
+      minorVersion = ios.readUnsignedShort();
+      majorVersion = ios.readUnsignedShort();
+
+      // scan the constant pool
+      pool = new Pool_Collection(ios, options);
+
+      // read the class access flags, and the names of the class and super class
+      accessFlags = ios.readUnsignedShort();
+      thisClass = ios.readUnsignedShort();
+      superClass = ios.readUnsignedShort();
+      body = ios.offset();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        accept                                                -
+    -                                                                      -
+    - Desc:          walk the class file, calling the visitor for each     -
+    -                part (may be called again with another visitor)       -
+    -----------------------------------------------------------------------*/
+   public void accept(Class_Visitor visitor) throws IOException {
+      stopped = false;
+
+      // the header, then the constants
+      if (visitor.visitHeader(this, minorVersion, majorVersion, accessFlags, thisClass, superClass)) {
+         if (stopped) return;
+         int count = pool.getCount();
+         for (int i = 1; i < count; i++) {
+            int tag = pool.getTag(i);
+            if (!visitor.visitConstant(i, tag)) break;
+            if (stopped) return;
+
+            // long and double constants occupy two indexes
+            if ((tag == 5) || (tag == 6)) i++;
+         }
+      }
+      if (stopped) return;
+
+      ClassBuffer ios = at(body);
+      try {
+         // the interfaces
+         int count = ios.readUnsignedShort();
+         for (int i = 0; i < count; i++) {
+            visitor.visitInterface(ios.readUnsignedShort());
+            if (stopped) return;
+         }
+
+         // the fields and their attributes
+         count = ios.readUnsignedShort();
+         for (int i = 0; i < count; i++) {
+            int offset = ios.offset();
+            int access = ios.readUnsignedShort();
+            int nameIndex = ios.readUnsignedShort();
+            int descriptorIndex = ios.readUnsignedShort();
+            boolean visit = visitor.visitField(offset, access, nameIndex, descriptorIndex);
+            if (stopped) return;
+            if (!readAttributes(ios, visitor, visit ? Class_Visitor.FIELD : -1)) return;
+         }
+
+         // the methods, their code and attributes
+         count = ios.readUnsignedShort();
+         for (int i = 0; i < count; i++) {
+            int offset = ios.offset();
+            int access = ios.readUnsignedShort();
+            int nameIndex = ios.readUnsignedShort();
+            int descriptorIndex = ios.readUnsignedShort();
+            boolean visit = visitor.visitMethod(offset, access, nameIndex, descriptorIndex);
+            if (stopped) return;
+            if (!readAttributes(ios, visitor, visit ? Class_Visitor.METHOD : -1)) return;
+         }
+
+         // the class attributes
+         if (!readAttributes(ios, visitor, Class_Visitor.CLASS)) return;
+      } catch (EOFException e) {
+         throw new IOException("Class file truncated (offset " + ios.offset() + ")");
+      }
+      visitor.visitEnd();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readAttributes                                        -
+    -                                                                      -
+    - Desc:          pass the attributes to the visitor (owner -1 = skip   -
+    -                them).  false if the read was stopped                 -
+    -----------------------------------------------------------------------*/
+   private boolean readAttributes(ClassBuffer ios, Class_Visitor visitor, int owner) throws IOException {
+      int count = ios.readUnsignedShort();
+      for (int i = 0; i < count; i++) {
+         int offset = ios.offset();
+         int nameIndex = ios.readUnsignedShort();
+         int length = ios.readInt();
+         if ((owner == Class_Visitor.METHOD) && "Code".equals(getString(nameIndex))) {
+            if (!readCode(at(ios.offset()), visitor, offset)) return false;
+         } else if (owner >= 0) {
+            visitor.visitAttribute(owner, offset, nameIndex, length);
+            if (stopped) return false;
+         }
+         ios.skipBytes(length);
+      }
+      return true;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readCode                                              -
+    -                                                                      -
+    - Desc:          pass the code of a method to the visitor.  false if   -
+    -                the read was stopped                                  -
+    -----------------------------------------------------------------------*/
+   private boolean readCode(ClassBuffer ios, Class_Visitor visitor, int offset) throws IOException {
+      int maxStack = ios.readUnsignedShort();
+      int maxLocals = ios.readUnsignedShort();
+      int codeLength = ios.readInt();
+      boolean visit = visitor.visitCode(offset, maxStack, maxLocals, codeLength);
+      if (stopped) return false;
+      if (!visit) return true;
+
+      // the instructions
+      int codeStart = ios.pos;
+      ios.skipBytes(codeLength);
+      Code_Cursor cursor = new Code_Cursor();
+      cursor.reset(ios.buf, codeStart, codeLength);
+      try {
+         while (cursor.next()) {
+            if ((cursor.getLength() <= 0) || (cursor.getPC() + cursor.getLength() > codeLength)) {
+               throw new IOException("Instruction at pc " + cursor.getPC() + " overruns the code (offset " +
+                  offset + ")");
+            }
+            visitor.visitInstruction(cursor);
+            if (stopped) return false;
+         }
+      } catch (ArrayIndexOutOfBoundsException e) {
+         throw new EOFException();
+      }
+
+      // the try catch blocks
+      int count = ios.readUnsignedShort();
+      for (int i = 0; i < count; i++) {
+         int startPC = ios.readUnsignedShort();
+         int endPC = ios.readUnsignedShort();
+         int handlerPC = ios.readUnsignedShort();
+         int catchType = ios.readUnsignedShort();
+         visitor.visitTryCatch(startPC, endPC, handlerPC, catchType);
+         if (stopped) return false;
+      }
+
+      // the attributes of the code
+      return readAttributes(ios, visitor, Class_Visitor.CODE);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getAttributes                                         -
+    -                                                                      -
+    - Desc:          offset of the class attributes - the interfaces,      -
+    -                fields and methods are passed over by their length    -
+    -----------------------------------------------------------------------*/
+   int getAttributes() throws IOException {
+      ClassBuffer ios = at(body);
+      try {
+         ios.skipBytes(2 * ios.readUnsignedShort());
+         for (int n = 0; n < 2; n++) {
+            int count = ios.readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+               ios.skipBytes(6);
+               int attributes = ios.readUnsignedShort();
+               for (int j = 0; j < attributes; j++) {
+                  ios.skipBytes(2);
+                  int length = ios.readInt();
+                  ios.skipBytes(length);
+               }
+            }
+         }
+      } catch (EOFException e) {
+         throw new IOException("Class file truncated (offset " + ios.offset() + ")");
+      }
+      return ios.offset();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        stop                                                  -
+    -                                                                      -
+    - Desc:          end the read (called from inside a visitor callback)  -
+    -----------------------------------------------------------------------*/
+   public void stop() {
+      stopped = true;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getString                                             -
+    -                                                                      -
+    - Desc:          constant at the index as jasmin writes it (class      -
+    -                names in internal form, e.g. "java/lang/Object")      -
+    -----------------------------------------------------------------------*/
+   public String getString(int cptIndex) {
+      return pool.toString(cptIndex);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getTag                                                -
+    -                                                                      -
+    - Desc:          type of the constant at the index (0 if none)         -
+    -----------------------------------------------------------------------*/
+   public int getTag(int cptIndex) {
+      return pool.getTag(cptIndex);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getConstantCount                                      -
+    -                                                                      -
+    - Desc:          size of the constant pool table (entry 0 is unused)   -
+    -----------------------------------------------------------------------*/
+   public int getConstantCount() {
+      return pool.getCount();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getUnsignedByte, getUnsignedShort, getInt             -
+    -                                                                      -
+    - Desc:          values at an offset in the class file (for reading    -
+    -                the info of an attribute)                             -
+    -----------------------------------------------------------------------*/
+   public int getUnsignedByte(int offset) throws IOException {
+      return bytes.buf[check(offset, 1)] & 0xff;
+   }
+
+   public int getUnsignedShort(int offset) throws IOException {
+      int i = check(offset, 2);
+      return ((bytes.buf[i] & 0xff) << 8) | (bytes.buf[i+1] & 0xff);
+   }
+
+   public int getInt(int offset) throws IOException {
+      return bytes.getInt(check(offset, 4));
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        check                                                 -
+    -                                                                      -
+    - Desc:          position in buf of n bytes at an offset in the class  -
+    -                file (which must hold them)                           -
+    -----------------------------------------------------------------------*/
+   private int check(int offset, int n) throws EOFException {
+      if ((offset < 0) || (offset > bytes.end - bytes.start - n)) throw new EOFException();
+      return bytes.start + offset;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        at                                                    -
+    -                                                                      -
+    - Desc:          new cursor over the class file at an offset           -
+    -----------------------------------------------------------------------*/
+   ClassBuffer at(int offset) {
+      return bytes.at(bytes.start + offset);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getPool                                               -
+    -                                                                      -
+    - Desc:          constant pool table of the class                      -
+    -----------------------------------------------------------------------*/
+   Pool_Collection getPool() {
+      return pool;
+   }
+}
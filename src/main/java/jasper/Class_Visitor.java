@@ -0,0 +1,137 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Class_Visitor.java
+ > Purpose:     Callbacks for the parts of a class file, in file order
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+import java.io.*;
+
+/*=======================================================================
+ = Class:         Class_Visitor                                         =
+ =                                                                      =
+ = Desc:          receives the parts of a class file from Class_Reader  =
+ =                as they are met, without a ClassFile being built.     =
+ =                constants, names and types are passed as indexes      =
+ =                into the constant pool table (Class_Reader.getString  =
+ =                resolves them) and attributes by their offset in the  =
+ =                class file, so nothing is decoded that isn't asked    =
+ =                for.  a visitor skips the parts of a field, method or =
+ =                code it doesn't want by returning false, and can end  =
+ =                the read at any time with Class_Reader.stop.  every   =
+ =                callback does nothing by default                      =
+ =======================================================================*/
+public abstract class Class_Visitor {
+
+   /*-----------------------------------------------------------------------
+    - Field:         CLASS, FIELD, METHOD, CODE                            -
+    -                                                                      -
+    - Desc:          what an attribute belongs to (see visitAttribute)     -
+    -----------------------------------------------------------------------*/
+   public static final int CLASS  = 0;
+   public static final int FIELD  = 1;
+   public static final int METHOD = 2;
+   public static final int CODE   = 3;
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitHeader                                           -
+    -                                                                      -
+    - Desc:          version, access flags, class and super class (the     -
+    -                super class is 0 for java/lang/Object).  return false -
+    -                to skip the constant pool callbacks                   -
+    -----------------------------------------------------------------------*/
+   public boolean visitHeader(Class_Reader reader, int minorVersion, int majorVersion, int accessFlags,
+         int thisClass, int superClass) throws IOException {
+      return true;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitConstant                                         -
+    -                                                                      -
+    - Desc:          a constant pool entry and its tag (1 = Utf8, 7 =      -
+    -                Class, 10 = Methodref ...).  return false to skip the -
+    -                rest of the constants                                 -
+    -----------------------------------------------------------------------*/
+   public boolean visitConstant(int cptIndex, int tag) throws IOException {
+      return true;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitInterface                                        -
+    -                                                                      -
+    - Desc:          an interface implemented by the class                 -
+    -----------------------------------------------------------------------*/
+   public void visitInterface(int cptIndex) throws IOException {
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitField                                            -
+    -                                                                      -
+    - Desc:          a field (offset of its field_info in the class file). -
+    -                return false to skip its attributes                   -
+    -----------------------------------------------------------------------*/
+   public boolean visitField(int offset, int accessFlags, int nameIndex, int descriptorIndex)
+         throws IOException {
+      return true;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitMethod                                           -
+    -                                                                      -
+    - Desc:          a method (offset of its method_info in the class      -
+    -                file).  return false to skip its code and attributes  -
+    -----------------------------------------------------------------------*/
+   public boolean visitMethod(int offset, int accessFlags, int nameIndex, int descriptorIndex)
+         throws IOException {
+      return true;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitCode                                             -
+    -                                                                      -
+    - Desc:          the Code attribute of the method (offset of the       -
+    -                attribute in the class file).  return false to skip   -
+    -                its instructions, try catch blocks and attributes     -
+    -----------------------------------------------------------------------*/
+   public boolean visitCode(int offset, int maxStack, int maxLocals, int codeLength) throws IOException {
+      return true;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitInstruction                                      -
+    -                                                                      -
+    - Desc:          an instruction of the code.  the cursor is only good  -
+    -                for the length of the call, and must not be moved     -
+    -----------------------------------------------------------------------*/
+   public void visitInstruction(Code_Cursor cursor) throws IOException {
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitTryCatch                                         -
+    -                                                                      -
+    - Desc:          a try catch block of the code (catch type 0 = any)    -
+    -----------------------------------------------------------------------*/
+   public void visitTryCatch(int startPC, int endPC, int handlerPC, int catchType) throws IOException {
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitAttribute                                        -
+    -                                                                      -
+    - Desc:          an attribute of the class, or of the field, method or -
+    -                code last visited (owner = CLASS, FIELD, METHOD or    -
+    -                CODE).  the offset is that of the attribute name, and -
+    -                the info follows 6 bytes later.  Code attributes are  -
+    -                passed to visitCode instead                           -
+    -----------------------------------------------------------------------*/
+   public void visitAttribute(int owner, int offset, int nameIndex, int length) throws IOException {
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitEnd                                              -
+    -                                                                      -
+    - Desc:          the whole class file has been read (not called if     -
+    -                the read was stopped)                                 -
+    -----------------------------------------------------------------------*/
+   public void visitEnd() throws IOException {
+   }
+}
@@ -6,7 +6,6 @@
  */
 package jasper;
 import java.io.*;
-import java.lang.reflect.*;
 
 /*=======================================================================
  = Class:         Code_Collection                                       =
@@ -18,114 +17,237 @@ class Code_Collection extends Attribute {
    private short maxStack;                                  // max stack space for method
    private short maxLocals;                                 // max local variable index
    private int codeLength;                                  // length of code block
-   private java.util.Vector code = new java.util.Vector();  // collection of code operations
+   private int count;                                       // number of instructions
+   private byte[] opcodes;                                  // opcode of each instruction
+   private int[] pcs;                                       // program counter of each instruction
+   private int[] operands;                                  // operand of each instruction (see decode)
+   private int[] tables;                                    // operands of switches and of instructions
+                                                            //    with more than one operand
+   private long[] labels;                                   // instructions that a label is printed at (bits)
    private TryCatch_Collection trycatches;                  // try catch blocks
    private Attribute_Collection attributes;                 // code attributes
                                                             //    (LineNumberTable, LocalVariableTable)
+   private ClassBuffer source;                              // class file bytes (until the code is decoded)
+   private byte[] bytes;                                    // bytes holding the class file
+   private int codeStart;                                   // offset of the code block in bytes
+   private int offset;                                      // offset of the attribute info in the class file
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
-    - Desc:          read in the code for the method from the input stream -
+    - Desc:          first pass - note where the code is and skip over it  -
+    -                by its length.  the instructions are read by decode   -
+    -                (at once if attributes are being dumped, so that the  -
+    -                dumps come out in file order)                         -
     -----------------------------------------------------------------------*/
-   Code_Collection(DataInputStream ios, Pool_Collection pool, int attribute_index) throws IOException {
+   Code_Collection(ClassBuffer ios, Pool_Collection pool, int attribute_index) throws IOException {
       // set the common variables for attributes
       super(ios, pool, attribute_index);
 
-      // get the max stack space
-      maxStack = ios.readShort();
-
-      // get the max number for local variable index
-      maxLocals = ios.readShort();
-
-      // get the length of the code block
-      codeLength = ios.readInt();
-
-      // read in the individual code operations
-      for (int i = 0, pc = 0; pc < codeLength; i++) {
-         // get the opcode for the instruction
-         int opcode = ios.read();
-
-         Code myCode;
-         if (dispatch[opcode][3] == null) {
-            // create instance of Code class
-            myCode = new Code(ios, pool, opcode, pc);
-
-         } else {
-            // create instance of a Code subclass
-            try {
-               Constructor myConstructor;
-
-               // get subclass that handles the opcode
-               Class newClass = (Class)dispatch[opcode][3];
-               try {
-                  // for some reason this technique is not working in JDK1.2?
-                  myConstructor = newClass.getConstructor(new Class[]
-                     {ios.getClass(), pool.getClass(), int.class, int.class});
-               } catch (NoSuchMethodException e) {
-                  // since there is only one constructor, we can use this technique if above fails
-                  myConstructor = newClass.getDeclaredConstructors()[0];
-               }
-
-            // read in the bytecode instruction
-            myCode = (Code)myConstructor.newInstance(new Object[]
-                  {ios, pool, new Integer(opcode), new Integer(pc)});
+      // remember where the attribute info is
+      source = ios;
+      offset = ios.pos;
+
+      // read the code now if dumping (if it is bad, the dump starts at the code)
+      if (pool.getOptions().dump) decode();
+      ios.skip(length);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        decode                                                -
+    -                                                                      -
+    - Desc:          second pass - read in the code for the method.  the   -
+    -                instructions are kept in parallel arrays, indexed by  -
+    -                instruction, rather than as an object apiece.  the    -
+    -                operand held for each depends on the opcode's layout: -
+    -                   BRANCH, BRANCH_INT = pc branched to                -
+    -                   LOCAL              = local variable index          -
+    -                   POOL, LDC,                                         -
+    -                   INVOKEDYNAMIC      = constant pool index           -
+    -                   BIPUSH, SIPUSH     = value pushed                  -
+    -                   NEWARRAY           = array type                    -
+    -                and for the rest it is the offset of their operands   -
+    -                in the side table:                                    -
+    -                   IINC               = local, increment              -
+    -                   INVOKEINTERFACE    = constant pool index, count    -
+    -                   MULTIANEWARRAY     = constant pool index, dims     -
+    -                   WIDE               = opcode, local, increment      -
+    -                   LOOKUPSWITCH       = default pc, count,            -
+    -                                        (match, pc) for each case     -
+    -                   TABLESWITCH        = default pc, count, low,       -
+    -                                        pc for each case              -
+    -----------------------------------------------------------------------*/
+   void decode() throws IOException {
+      if (source == null) return;
+      ClassBuffer ios = source.at(offset);
+      int start = ios.offset();
+      source = null;
+
+      try {
+         // get the max stack space
+         maxStack = ios.readShort();
+
+         // get the max number for local variable index
+         maxLocals = ios.readShort();
+
+         // get the length of the code block
+         codeLength = ios.readInt();
+         bytes = ios.buf;
+         codeStart = ios.pos;
+         ios.skipBytes(codeLength);
+
+         // read in the individual code operations
+         readCode(start);
+
+         // read in the try catch definitions
+         trycatches = new TryCatch_Collection(ios, pool);
+
+         // get the attributes associated with this code (LineNumberTable, LocalVariableTable)
+         attributes = new Attribute_Collection(ios, pool);
+      } catch (EOFException e) {
+         throw new IOException("Code attribute truncated (offset " + start + ")");
+      }
 
-            } catch (InstantiationException e) {
-               throw new IOException("InstantiationException");
+      // now iterate through the instructions and find where in the code block labels are needed
+      labels = new long[(count + 63) >> 6];
+      for (int i = 0; i < count; i++) {
+         switch (opkind[opcodes[i] & 0xff]) {
+            case BRANCH:
+            case BRANCH_INT:
+               setLabel(operands[i]);
+               break;
+            case LOOKUPSWITCH:
+               for (int k = 0; k < tables[operands[i] + 1]; k++) setLabel(tables[operands[i] + 3 + 2*k]);
+               break;
+            case TABLESWITCH:
+               for (int k = 0; k < tables[operands[i] + 1]; k++) setLabel(tables[operands[i] + 3 + k]);
+               setLabel(tables[operands[i]]);
+               break;
+         }
+      }
+      trycatches.getLabel(this);
+      attributes.getLabel(this);
+   }
 
-            } catch (IllegalAccessException e) {
-               throw new IOException("IllegalAccessException");
+   /*-----------------------------------------------------------------------
+    - Method:        readCode                                              -
+    -                                                                      -
+    - Desc:          fill the instruction arrays - the code is walked once -
+    -                to count the instructions, and again to store them    -
+    -----------------------------------------------------------------------*/
+   private void readCode(int start) throws IOException {
+      Code_Cursor cursor = new Code_Cursor();
+      codeCursor(cursor);
 
-            } catch (InvocationTargetException e) {
-               throw new IOException("InvocationTargetException");
+      // count the instructions and the side table entries
+      int size = 0;
+      try {
+         while (cursor.next()) {
+            if ((cursor.getLength() <= 0) || (cursor.getPC() + cursor.getLength() > codeLength)) {
+               throw new IOException("Instruction at pc " + cursor.getPC() + " overruns the code (offset " +
+                  start + ")");
             }
+            count++;
+            size += tableSize(cursor);
          }
-
-         // increment the program counter by number of bytes occupied by the instruction
-         pc += myCode.opbytes;
-
-         // add code class to the collection
-         code.addElement(myCode);
+      } catch (ArrayIndexOutOfBoundsException e) {
+         throw new IOException("Code attribute truncated (offset " + start + ")");
       }
 
-      // read in the try catch definitions
-      trycatches = new TryCatch_Collection(ios, pool);
-
-      // get the attributes associated with this code (LineNumberTable, LocalVariableTable)
-      attributes = new Attribute_Collection(ios, pool);
-
-      // now iterate through the collection and find where in the code block labels are needed
-      for (int i = 0; i < code.size(); i++) {
-         Code myCode = ((Code)code.elementAt(i));
-         myCode.getLabel(this);
+      // store the opcode, pc and operands of each instruction
+      opcodes = new byte[count];
+      pcs = new int[count];
+      operands = new int[count];
+      tables = new int[size];
+      cursor.rewind();
+      size = 0;
+      for (int i = 0; cursor.next(); i++) {
+         int opcode = cursor.getOpcode();
+         opcodes[i] = (byte)opcode;
+         pcs[i] = cursor.getPC();
+         switch (opkind[opcode]) {
+            case BRANCH:
+            case BRANCH_INT:
+               operands[i] = cursor.getTarget();
+               break;
+            case LOCAL:
+               operands[i] = cursor.getLocal();
+               break;
+            case POOL:
+            case LDC:
+            case INVOKEDYNAMIC:
+               operands[i] = cursor.getPoolIndex();
+               break;
+            case BIPUSH:
+            case SIPUSH:
+            case NEWARRAY:
+               operands[i] = cursor.getValue();
+               break;
+            case IINC:
+               operands[i] = size;
+               tables[size++] = cursor.getLocal();
+               tables[size++] = cursor.getValue();
+               break;
+            case INVOKEINTERFACE:
+            case MULTIANEWARRAY:
+               operands[i] = size;
+               tables[size++] = cursor.getPoolIndex();
+               tables[size++] = cursor.getValue();
+               break;
+            case WIDE:
+               operands[i] = size;
+               tables[size++] = cursor.getBaseOpcode();
+               tables[size++] = cursor.getLocal();
+               tables[size++] = cursor.getValue();
+               break;
+            case LOOKUPSWITCH:
+               operands[i] = size;
+               tables[size++] = cursor.getTarget();
+               tables[size++] = cursor.getSwitchCount();
+               for (int k = 0; k < cursor.getSwitchCount(); k++) {
+                  tables[size++] = cursor.getSwitchKey(k);
+                  tables[size++] = cursor.getSwitchTarget(k);
+               }
+               break;
+            case TABLESWITCH:
+               operands[i] = size;
+               tables[size++] = cursor.getTarget();
+               tables[size++] = cursor.getSwitchCount();
+               tables[size++] = cursor.getSwitchKey(0);
+               for (int k = 0; k < cursor.getSwitchCount(); k++) tables[size++] = cursor.getSwitchTarget(k);
+               break;
+         }
       }
-      trycatches.getLabel(this);
-      attributes.getLabel(this);
    }
 
    /*-----------------------------------------------------------------------
-    - Method:        setLabel                                              -
+    - Method:        tableSize                                             -
     -                                                                      -
-    - Desc:          set the code to print label at given program counter  -
+    - Desc:          side table entries needed by the instruction          -
     -----------------------------------------------------------------------*/
-   int setLabel(int pc) {
-      int maxPC = 0;                               // initialize the maximum PC
-      for (int i = 0; i < code.size(); i++) {
-         Code myCode = (Code)code.elementAt(i);
-         maxPC = myCode.setLabel(pc);              // get the PC of the next instruction
+   private static int tableSize(Code_Cursor cursor) {
+      switch (opkind[cursor.getOpcode()]) {
+         case IINC:
+         case INVOKEINTERFACE:
+         case MULTIANEWARRAY:  return 2;
+         case WIDE:            return 3;
+         case LOOKUPSWITCH:    return 2 + 2 * cursor.getSwitchCount();
+         case TABLESWITCH:     return 3 + cursor.getSwitchCount();
+         default:              return 0;
       }
-      if (pc > maxPC) pcReturnLabel = pc;          // if pc exceeds code range then set end method pc
-      return pc;
    }
 
    /*-----------------------------------------------------------------------
-    - Method:        toLabel                                               -
+    - Method:        setLabel                                              -
     -                                                                      -
-    - Desc:          return label string                                   -
+    - Desc:          set the code to print label at given program counter  -
     -----------------------------------------------------------------------*/
-   static String toLabel(int pc) {
-      return "LABEL0x" + Integer.toHexString(pc);
+   int setLabel(int pc) {
+      int i = java.util.Arrays.binarySearch(pcs, pc);
+      if (i >= 0) labels[i >> 6] |= 1L << i;
+      int lastPC = (count > 0) ? pcs[count - 1] : 0;
+      if (pc > lastPC) pcReturnLabel = pc;         // if pc exceeds code range then set end method pc
+      return pc;
    }
 
    /*-----------------------------------------------------------------------
@@ -133,130 +255,206 @@ class Code_Collection extends Attribute {
     -                                                                      -
     - Desc:          output the instructions of the method                 -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
+   void jasmin(Jasmin_Writer out) throws IOException {
       // output the .limit directives
-      out.println(ClassFile.pad("   .limit stack", ClassFile.SPACER) + maxStack);
-      out.println(ClassFile.pad("   .limit locals", ClassFile.SPACER) + maxLocals);
+      out.print("   .limit stack").pad(ClassFile.SPACER).print(maxStack).println();
+      out.print("   .limit locals").pad(ClassFile.SPACER).print(maxLocals).println();
 
       // output the .var and .throws directives
       attributes.jasmin(out);
 
-      // output the opcode instructions
-      for (int k = 0; k < code.size(); k++) {
-         // get current code instruction
-         Code myCode = (Code)code.elementAt(k);
-
-         // get lines associated with current code pc
-         int[] lines = attributes.getLineNumberTable(myCode.pc);
+      // line number tables are walked alongside the instructions (both in pc order)
+      Attribute_LineNumberTable[] lines = attributes.getLineNumberTables();
+      int[] next = new int[lines.length];
 
-         // output the .line directives if associated source lines found
-         if (lines != null) {
-            for (int i = 0; i < lines.length; i++) {
-               out.println(ClassFile.pad("   .line", ClassFile.SPACER) + lines[i]);
+      // output the opcode instructions
+      for (int k = 0; k < count; k++) {
+         int pc = pcs[k];
+
+         // output the .line directives from the first table with lines for the current code pc
+         for (int i = 0; i < lines.length; i++) next[i] = lines[i].seek(next[i], pc);
+         for (int i = 0; i < lines.length; i++) {
+            if (lines[i].isLine(next[i], pc)) {
+               next[i] = lines[i].jasmin(out, next[i], pc);
+               break;
             }
          }
 
          // output the instruction
-         myCode.jasmin(out);
-         out.println("");
+         jasmin(out, k);
+         out.println();
       }
 
       // if label need for end method, then output the label
-      if (pcReturnLabel > 0) out.println(toLabel(pcReturnLabel) + ":");
+      if (pcReturnLabel > 0) out.label(pcReturnLabel).print(':').println();
 
       // output the .catch directives
       trycatches.jasmin(out);
    }
 
+   /*-----------------------------------------------------------------------
+    - Method:        jasmin                                                -
+    -                                                                      -
+    - Desc:          output the instruction at the index                   -
+    -----------------------------------------------------------------------*/
+   private void jasmin(Jasmin_Writer out, int i) {
+      int opcode = opcodes[i] & 0xff;
+      int pc = pcs[i];
+      int operand = operands[i];
+      int kind = opkind[opcode];
+
+      // output the label and the operation
+      if ((labels[i >> 6] & (1L << i)) != 0) out.label(pc).print(':').println();
+      out.print("   ").print(opdesc[(kind == WIDE) ? tables[operand] : opcode]).pad(ClassFile.SPACER);
+
+      // output the operands
+      switch (kind) {
+         case BRANCH:
+         case BRANCH_INT:
+            out.label(operand);
+            break;
+         case LOCAL:
+         case BIPUSH:
+         case SIPUSH:
+            out.print(operand);
+            break;
+         case POOL:
+         case LDC:
+         case INVOKEDYNAMIC:
+            out.print(pool.toString(operand));
+            break;
+         case NEWARRAY:
+            out.print(getArrayType(operand));
+            break;
+         case IINC:
+            out.print(tables[operand]).print(' ').print(tables[operand + 1]);
+            break;
+         case INVOKEINTERFACE:
+         case MULTIANEWARRAY:
+            out.print(pool.toString(tables[operand])).print(' ').print(tables[operand + 1]);
+            break;
+         case WIDE:
+            out.print(tables[operand + 1]);
+            if (tables[operand] == 0x84) out.print(' ').print(tables[operand + 2]);
+            break;
+         case LOOKUPSWITCH:
+            out.println();
+            for (int k = 0; k < tables[operand + 1]; k++) {
+               out.print("        ").print(tables[operand + 2 + 2*k]).print(" :").pad(ClassFile.SPACER);
+               out.label(tables[operand + 3 + 2*k]).println();
+            }
+            out.print("        default :").pad(ClassFile.SPACER).label(tables[operand]).println();
+            break;
+         case TABLESWITCH:
+            int low = tables[operand + 2];
+            out.print(low).print(' ').print(low + tables[operand + 1] - 1).println();
+            for (int k = 0; k < tables[operand + 1]; k++) {
+               out.pad(ClassFile.SPACER).label(tables[operand + 3 + k]).println();
+            }
+            out.print("       default :").pad(ClassFile.SPACER).label(tables[operand]).println();
+            break;
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        codeCursor                                            -
+    -                                                                      -
+    - Desc:          point the cursor at the instructions (the code must   -
+    -                have been decoded)                                    -
+    -----------------------------------------------------------------------*/
+   boolean codeCursor(Code_Cursor cursor) {
+      if (source != null) {
+         throw new IllegalStateException("Code attribute not decoded (offset " + source.at(offset).offset() + ")");
+      }
+      cursor.reset(bytes, codeStart, codeLength);
+      return true;
+   }
+
    /*-----------------------------------------------------------------------
     - Method:        browseFieldrefs                                       -
     -                                                                      -
-    - Desc:          ask the code what fields are referenced               -
+    - Desc:          fields referenced by the code                         -
     -----------------------------------------------------------------------*/
    String[] browseFieldrefs() {
-      java.util.Vector x = new java.util.Vector();
-      for (int i = 0; i < code.size(); i++) {
-         Code myCode = (Code)code.elementAt(i);
-         int cptIndex = myCode.browseFieldref();
-         if (cptIndex > 0) {
-            boolean found = false;
-            String s = pool.browseString(cptIndex);
-            for (int j = 0; j < x.size(); j++) {
-               if (((String)x.elementAt(j)).equals(s)) {
-                  found = true;
-                  break;
-               }
-            }
-            if (!found) x.add(pool.browseString(cptIndex));
-         }
-      }
-      String[] retVal = new String[x.size()];
-      x.copyInto(retVal);
-      return retVal;
+      return browseRefs(pool::isFieldref);
    }
 
    /*-----------------------------------------------------------------------
     - Method:        browseMethodrefs                                      -
     -                                                                      -
-    - Desc:          ask the code what methods are referenced              -
+    - Desc:          methods referenced by the code                        -
     -----------------------------------------------------------------------*/
    String[] browseMethodrefs() {
-      java.util.Vector x = new java.util.Vector();
-      for (int i = 0; i < code.size(); i++) {
-         Code myCode = (Code)code.elementAt(i);
-         int cptIndex = myCode.browseMethodref();
-         if (cptIndex > 0) {
-            boolean found = false;
-            String s = pool.browseString(cptIndex);
-            for (int j = 0; j < x.size(); j++) {
-               if (((String)x.elementAt(j)).equals(s)) {
-                  found = true;
-                  break;
-               }
-            }
-            if (!found) x.add(pool.browseString(cptIndex));
-         }
-      }
-      String[] retVal = new String[x.size()];
-      x.copyInto(retVal);
-      return retVal;
+      return browseRefs(pool::isMethodref);
    }
 
    /*-----------------------------------------------------------------------
     - Method:        browseInterfaceMethodrefs                             -
     -                                                                      -
-    - Desc:          ask the code what interface methods are referenced    -
+    - Desc:          interface methods referenced by the code              -
     -----------------------------------------------------------------------*/
    String[] browseInterfaceMethodrefs() {
-      java.util.Vector x = new java.util.Vector();
-      for (int i = 0; i < code.size(); i++) {
-         Code myCode = (Code)code.elementAt(i);
-         int cptIndex = myCode.browseInterfaceMethodref();
-         if (cptIndex > 0) {
-            boolean found = false;
-            String s = pool.browseString(cptIndex);
-            for (int j = 0; j < x.size(); j++) {
-               if (((String)x.elementAt(j)).equals(s)) {
-                  found = true;
-                  break;
-               }
-            }
-            if (!found) x.add(pool.browseString(cptIndex));
-         }
+      return browseRefs(pool::isInterfaceMethodref);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseRefs                                            -
+    -                                                                      -
+    - Desc:          browse strings for the constants of a kind that the   -
+    -                code refers to, in order of first use with duplicates -
+    -                dropped (walked with a cursor, so no instruction      -
+    -                objects are needed)                                   -
+    -----------------------------------------------------------------------*/
+   private String[] browseRefs(java.util.function.IntPredicate kind) {
+      java.util.BitSet seenIndex = new java.util.BitSet();
+      java.util.HashSet<String> seenString = new java.util.HashSet<String>();
+      java.util.ArrayList<String> x = new java.util.ArrayList<String>();
+      Code_Cursor cursor = new Code_Cursor();
+      codeCursor(cursor);
+      while (cursor.next()) {
+         // each constant is only resolved once
+         int cptIndex = cursor.getPoolIndex();
+         if ((cptIndex <= 0) || seenIndex.get(cptIndex)) continue;
+         seenIndex.set(cptIndex);
+         if (!kind.test(cptIndex)) continue;
+
+         // distinct constants can still resolve to the same string
+         String s = pool.browseString(cptIndex);
+         if (seenString.add(s)) x.add(s);
       }
-      String[] retVal = new String[x.size()];
-      x.copyInto(retVal);
-      return retVal;
+      return x.toArray(new String[x.size()]);
    }
 
+   /*-----------------------------------------------------------------------
+    - Field:         NONE ... WIDE                                         -
+    -                                                                      -
+    - Desc:          layouts of the operands that follow an opcode         -
+    -----------------------------------------------------------------------*/
+   static final int NONE            = 0;   // no operands
+   static final int BRANCH          = 1;   // signed 16-bit branch offset
+   static final int BRANCH_INT      = 2;   // signed 32-bit branch offset
+   static final int LOCAL           = 3;   // local variable index byte
+   static final int POOL            = 4;   // constant pool index (16-bit)
+   static final int BIPUSH          = 5;   // signed byte value
+   static final int IINC            = 6;   // local variable index byte, signed byte increment
+   static final int INVOKEINTERFACE = 7;   // constant pool index, count byte, zero byte
+   static final int INVOKEDYNAMIC   = 8;   // constant pool index, two zero bytes
+   static final int LDC             = 9;   // constant pool index byte
+   static final int LOOKUPSWITCH    = 10;  // padding, default, pair count, match-offset pairs
+   static final int MULTIANEWARRAY  = 11;  // constant pool index, dimensions byte
+   static final int NEWARRAY        = 12;  // array type byte
+   static final int SIPUSH          = 13;  // signed 16-bit value
+   static final int TABLESWITCH     = 14;  // padding, default, low, high, offsets
+   static final int WIDE            = 15;  // opcode, 16-bit local index (and increment for iinc)
+
    /*-----------------------------------------------------------------------
     - Field:         dispatch                                              -
     -                                                                      -
-    - Desc:          array used to dispatch for object instantiation       -
+    - Desc:          array used to decode the instructions                 -
     -                   element[i][0] = opcode (same as array index)       -
     -                   element[i][1] = number of bytes for operation      -
     -                   element[i][2] = bytecode operation                 -
-    -                   element[i][3] = subclass for opcode (null = Code)  -
+    -                   element[i][3] = layout of operands (null = none)   -
     -----------------------------------------------------------------------*/
    static Object[][] dispatch = {
       {"0x00", "1", "nop",             null},
@@ -275,16 +473,16 @@ class Code_Collection extends Attribute {
       {"0x0d", "1", "fconst_2",        null},
       {"0x0e", "1", "dconst_0",        null},
       {"0x0f", "1", "dconst_1",        null},
-      {"0x10", "2", "bipush",          Code_bipush.class},
-      {"0x11", "3", "sipush",          Code_sipush.class},
-      {"0x12", "2", "ldc",             Code_ldc.class},
-      {"0x13", "3", "ldc_w",           Code_Pool.class},
-      {"0x14", "3", "ldc2_w",          Code_Pool.class},
-      {"0x15", "2", "iload",           Code_VarTable.class},
-      {"0x16", "2", "lload",           Code_VarTable.class},
-      {"0x17", "2", "fload",           Code_VarTable.class},
-      {"0x18", "2", "dload",           Code_VarTable.class},
-      {"0x19", "2", "aload",           Code_VarTable.class},
+      {"0x10", "2", "bipush",          BIPUSH},
+      {"0x11", "3", "sipush",          SIPUSH},
+      {"0x12", "2", "ldc",             LDC},
+      {"0x13", "3", "ldc_w",           POOL},
+      {"0x14", "3", "ldc2_w",          POOL},
+      {"0x15", "2", "iload",           LOCAL},
+      {"0x16", "2", "lload",           LOCAL},
+      {"0x17", "2", "fload",           LOCAL},
+      {"0x18", "2", "dload",           LOCAL},
+      {"0x19", "2", "aload",           LOCAL},
       {"0x1a", "1", "iload_0",         null},
       {"0x1b", "1", "iload_1",         null},
       {"0x1c", "1", "iload_2",         null},
@@ -313,11 +511,11 @@ class Code_Collection extends Attribute {
       {"0x33", "1", "baload",          null},
       {"0x34", "1", "caload",          null},
       {"0x35", "1", "saload",          null},
-      {"0x36", "2", "istore",          Code_VarTable.class},
-      {"0x37", "2", "lstore",          Code_VarTable.class},
-      {"0x38", "2", "fstore",          Code_VarTable.class},
-      {"0x39", "2", "dstore",          Code_VarTable.class},
-      {"0x3a", "2", "astore",          Code_VarTable.class},
+      {"0x36", "2", "istore",          LOCAL},
+      {"0x37", "2", "lstore",          LOCAL},
+      {"0x38", "2", "fstore",          LOCAL},
+      {"0x39", "2", "dstore",          LOCAL},
+      {"0x3a", "2", "astore",          LOCAL},
       {"0x3b", "1", "istore_0",        null},
       {"0x3c", "1", "istore_1",        null},
       {"0x3d", "1", "istore_2",        null},
@@ -391,7 +589,7 @@ class Code_Collection extends Attribute {
       {"0x81", "1", "lor",             null},
       {"0x82", "1", "ixor",            null},
       {"0x83", "1", "lxor",            null},
-      {"0x84", "3", "iinc",            Code_iinc.class},
+      {"0x84", "3", "iinc",            IINC},
       {"0x85", "1", "i2l",             null},
       {"0x86", "1", "i2f",             null},
       {"0x87", "1", "i2d",             null},
@@ -412,55 +610,55 @@ class Code_Collection extends Attribute {
       {"0x96", "1", "fcmpg",           null},
       {"0x97", "1", "dcmpl",           null},
       {"0x98", "1", "dcmpg",           null},
-      {"0x99", "3", "ifeq",            Code_Branch.class},
-      {"0x9a", "3", "ifne",            Code_Branch.class},
-      {"0x9b", "3", "iflt",            Code_Branch.class},
-      {"0x9c", "3", "ifge",            Code_Branch.class},
-      {"0x9d", "3", "ifgt",            Code_Branch.class},
-      {"0x9e", "3", "ifle",            Code_Branch.class},
-      {"0x9f", "3", "if_icmpeq",       Code_Branch.class},
-      {"0xa0", "3", "if_icmpne",       Code_Branch.class},
-      {"0xa1", "3", "if_icmplt",       Code_Branch.class},
-      {"0xa2", "3", "if_icmpge",       Code_Branch.class},
-      {"0xa3", "3", "if_icmpgt",       Code_Branch.class},
-      {"0xa4", "3", "if_icmple",       Code_Branch.class},
-      {"0xa5", "3", "if_acmpeq",       Code_Branch.class},
-      {"0xa6", "3", "if_acmpne",       Code_Branch.class},
-      {"0xa7", "3", "goto",            Code_Branch.class},
-      {"0xa8", "3", "jsr",             Code_Branch.class},
-      {"0xa9", "2", "ret",             Code_VarTable.class},
-      {"0xaa", "0", "tableswitch",     Code_tableswitch.class},
-      {"0xab", "0", "lookupswitch",    Code_lookupswitch.class},
+      {"0x99", "3", "ifeq",            BRANCH},
+      {"0x9a", "3", "ifne",            BRANCH},
+      {"0x9b", "3", "iflt",            BRANCH},
+      {"0x9c", "3", "ifge",            BRANCH},
+      {"0x9d", "3", "ifgt",            BRANCH},
+      {"0x9e", "3", "ifle",            BRANCH},
+      {"0x9f", "3", "if_icmpeq",       BRANCH},
+      {"0xa0", "3", "if_icmpne",       BRANCH},
+      {"0xa1", "3", "if_icmplt",       BRANCH},
+      {"0xa2", "3", "if_icmpge",       BRANCH},
+      {"0xa3", "3", "if_icmpgt",       BRANCH},
+      {"0xa4", "3", "if_icmple",       BRANCH},
+      {"0xa5", "3", "if_acmpeq",       BRANCH},
+      {"0xa6", "3", "if_acmpne",       BRANCH},
+      {"0xa7", "3", "goto",            BRANCH},
+      {"0xa8", "3", "jsr",             BRANCH},
+      {"0xa9", "2", "ret",             LOCAL},
+      {"0xaa", "0", "tableswitch",     TABLESWITCH},
+      {"0xab", "0", "lookupswitch",    LOOKUPSWITCH},
       {"0xac", "1", "ireturn",         null},
       {"0xad", "1", "lreturn",         null},
       {"0xae", "1", "freturn",         null},
       {"0xaf", "1", "dreturn",         null},
       {"0xb0", "1", "areturn",         null},
       {"0xb1", "1", "return",          null},
-      {"0xb2", "3", "getstatic",       Code_Pool.class},
-      {"0xb3", "3", "putstatic",       Code_Pool.class},
-      {"0xb4", "3", "getfield",        Code_Pool.class},
-      {"0xb5", "3", "putfield",        Code_Pool.class},
-      {"0xb6", "3", "invokevirtual",   Code_Pool.class},
-      {"0xb7", "3", "invokespecial",   Code_Pool.class},
-      {"0xb8", "3", "invokestatic",    Code_Pool.class},
-      {"0xb9", "5", "invokeinterface", Code_invokeinterface.class},
-      {"0xba", "1", "xxxunusedxxx",    null},
-      {"0xbb", "3", "new",             Code_Pool.class},
-      {"0xbc", "2", "newarray",        Code_newarray.class},
-      {"0xbd", "3", "anewarray",       Code_Pool.class},
+      {"0xb2", "3", "getstatic",       POOL},
+      {"0xb3", "3", "putstatic",       POOL},
+      {"0xb4", "3", "getfield",        POOL},
+      {"0xb5", "3", "putfield",        POOL},
+      {"0xb6", "3", "invokevirtual",   POOL},
+      {"0xb7", "3", "invokespecial",   POOL},
+      {"0xb8", "3", "invokestatic",    POOL},
+      {"0xb9", "5", "invokeinterface", INVOKEINTERFACE},
+      {"0xba", "5", "invokedynamic",   INVOKEDYNAMIC},
+      {"0xbb", "3", "new",             POOL},
+      {"0xbc", "2", "newarray",        NEWARRAY},
+      {"0xbd", "3", "anewarray",       POOL},
       {"0xbe", "1", "arraylength",     null},
       {"0xbf", "1", "athrow",          null},
-      {"0xc0", "3", "checkcast",       Code_Pool.class},
-      {"0xc1", "3", "instanceof",      Code_Pool.class},
+      {"0xc0", "3", "checkcast",       POOL},
+      {"0xc1", "3", "instanceof",      POOL},
       {"0xc2", "1", "monitorenter",    null},
       {"0xc3", "1", "monitorexit",     null},
-      {"0xc4", "4", "wide",            Code_wide.class},
-      {"0xc5", "4", "multianewarray",  Code_multianewarray.class},
-      {"0xc6", "3", "ifnull",          Code_Branch.class},
-      {"0xc7", "3", "ifnonnull",       Code_Branch.class},
-      {"0xc8", "5", "goto_w",          Code_BranchInt.class},
-      {"0xc9", "5", "jsr_w",           Code_BranchInt.class},
+      {"0xc4", "4", "wide",            WIDE},
+      {"0xc5", "4", "multianewarray",  MULTIANEWARRAY},
+      {"0xc6", "3", "ifnull",          BRANCH},
+      {"0xc7", "3", "ifnonnull",       BRANCH},
+      {"0xc8", "5", "goto_w",          BRANCH_INT},
+      {"0xc9", "5", "jsr_w",           BRANCH_INT},
       {"0xca", "1", "breakpoint",      null},
       {"0xcb", "1", "xxxunusedxxx",    null},
       {"0xcc", "1", "xxxunusedxxx",    null},
@@ -516,578 +714,25 @@ class Code_Collection extends Attribute {
       {"0xfe", "1", "impdep1",         null},
       {"0xff", "1", "impdep2",         null}
    };
-}
-
-/*=======================================================================
- = Class:         Code                                                  =
- =                                                                      =
- = Desc:          java bytecode instruction                             =
- =======================================================================*/
-class Code {
-   protected Pool_Collection pool;               // constant pool table
-   protected String opdesc;                      // operation description
-   protected int opcode;                         // operation code
-   protected int opbytes = 0;                    // bytes that the operation occupies
-   protected int pc = 0;                         // program counter for the operation
-   protected boolean label = false;              // flag whether a label should be printed at this address
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code(DataInputStream ios, Pool_Collection pool, int opcode, int pc) {
-      // save off the constant pool table for later reference
-      this.pool = pool;
-
-      // save off the operation code
-      this.opcode = opcode;
-
-      // save off the program counter of the code
-      this.pc = pc;
-
-      // save off the description of the operation
-      this.opdesc = (String)Code_Collection.dispatch[opcode][2];
-
-      // save off the number of bytes for the operations (note: lookupswitch & tableswitch overwrite)
-      opbytes = Integer.parseInt((String)Code_Collection.dispatch[opcode][1]);
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        getLabel                                              -
-    -                                                                      -
-    - Desc:          default to no labels needed by operation              -
-    -                overridden by subclass: Code_Branch; Code_BranchInt;  -
-    -                Code_lookupswitch; Code_tableswitch                   -
-    -----------------------------------------------------------------------*/
-   void getLabel(Code_Collection code) {
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        setLabel                                              -
-    -                                                                      -
-    - Desc:          if pc for label is pc for opcode then set label flag  -
-    -----------------------------------------------------------------------*/
-   int setLabel(int pc) {
-      if (this.pc == pc) label = true;
-      return this.pc;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      if (label) out.println(Code_Collection.toLabel(pc) + ":");
-      out.print(pad("   " + jasminDesc(), ClassFile.SPACER));
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasminDesc                                            -
-    -                                                                      -
-    - Desc:          return the operator description                       -
-    -                may be overriden by wide instructions                 -
-    -----------------------------------------------------------------------*/
-   String jasminDesc() {
-      return opdesc;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseFieldref                                        -
-    -                                                                      -
-    - Desc:          default to no fields referenced by operation code     -
-    -                overridden by subclass: Code_Pool                     -
-    -----------------------------------------------------------------------*/
-   int browseFieldref() {
-      return -1;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseMethodref                                       -
-    -                                                                      -
-    - Desc:          default to no methods referenced by operation code    -
-    -                overridden by subclass: Code_Pool                     -
-    -----------------------------------------------------------------------*/
-   int browseMethodref() {
-      return -1;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseInterfaceMethodref                              -
-    -                                                                      -
-    - Desc:          default to no interfaces referenced by operation code -
-    -                overridden by subclass: Code_Pool                     -
-    -----------------------------------------------------------------------*/
-   int browseInterfaceMethodref() {
-      return -1;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        pad                                                   -
-    -                                                                      -
-    - Desc:          pad a string with specified spaces.  Done here to     -
-    -                keep the code length manageable.                      -
-    -----------------------------------------------------------------------*/
-   static String pad(String s, int pad) {
-      return ClassFile.pad(s, pad);
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        pad                                                   -
-    -                                                                      -
-    - Desc:          pad a string with specified spaces.  this overload of -
-    -                the function prevents having to convert int to string -
-    -----------------------------------------------------------------------*/
-   static String pad(int n, int pad) {
-      return pad(n + "", pad);
-   }
-}
-
-/*=======================================================================
- = Class:         Code_Branch                                           =
- =                                                                      =
- = Desc:          instructions which perform relative branches          =
- =                   goto           if_acmpeq      if_acmpne            =
- =                   if_icmpeq      if_icmpge      if_icmpgt            =
- =                   if_icmple      if_icmplt      if_icmpne            =
- =                   ifeq           ifge           ifgt                 =
- =                   ifle           iflt           ifne                 =
- =                   ifnonnull      ifnull                              =
- =======================================================================*/
-class Code_Branch extends Code {
-   private int branch;                 // branch offset for the operation (relative to current pc)
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_Branch(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get the branch offset for the operation
-      branch = ios.readShort();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        getLabel                                              -
-    -                                                                      -
-    - Desc:          label needed for branch address                       -
-    -----------------------------------------------------------------------*/
-   void getLabel(Code_Collection code) {
-      code.setLabel(branch + pc);
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(Code_Collection.toLabel(pc+branch));
-   }
-}
-
-/*=======================================================================
- = Class:         Code_BranchInt                                        =
- =                                                                      =
- = Desc:          instructions which perform branches (integer offset)  =
- =                   goto_w         jsr_w                               =
- =======================================================================*/
-class Code_BranchInt extends Code {
-   private int branch;                 // branch offset for the operation (relative to current pc)
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_BranchInt(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get the branch offset for the operation (branch is relative to current pc)
-      branch = ios.readInt();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        getLabel                                              -
-    -                                                                      -
-    - Desc:          label needed for branch address                       -
-    -----------------------------------------------------------------------*/
-   void getLabel(Code_Collection code) {
-      code.setLabel(pc+branch);
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(Code_Collection.toLabel(pc+branch));
-   }
-}
-
-/*=======================================================================
- = Class:         Code_VarTable                                         =
- =                                                                      =
- = Desc:          instructions which access local variables             =
- =                   aload          astore         dload                =
- =                   dstore         fload          fstore               =
- =                   iload          istore         lload                =
- =                   lstore         ret                                 =
- =======================================================================*/
-class Code_VarTable extends Code {
-   private int lvtIndex;               // index into the local variable table
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_VarTable(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get the local variable table index
-      lvtIndex = ios.read();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(lvtIndex);
-   }
-}
-
-/*=======================================================================
- = Class:         Code_Pool                                             =
- =                                                                      =
- = Desc:          instructions which access the constant pool table     =
- =                   anewarray      checkcast      getfield             =
- =                   getstatic      instanceof     invokespecial        =
- =                   invokestatic   invokevirtual  ldc_w                =
- =                   ldc2_w         new            putfield             =
- =                   putstatic                                          =
- =======================================================================*/
-class Code_Pool extends Code {
-   private int cptIndex;               // index into the constant pool table
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_Pool(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get the constant pool index for the referenced constant
-      cptIndex = ios.readShort();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(pool.toString(cptIndex));
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseFieldref                                        -
-    -                                                                      -
-    - Desc:          check if this instruction is referencing a field      -
-    -----------------------------------------------------------------------*/
-   int browseFieldref() {
-      if (pool.isFieldref(cptIndex)) return cptIndex; else return -1;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseMethodref                                       -
-    -                                                                      -
-    - Desc:          check if this instruction is referencing a method     -
-    -----------------------------------------------------------------------*/
-   int browseMethodref() {
-      if (pool.isMethodref(cptIndex)) return cptIndex; else return -1;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        browseInterfaceMethodref                              -
-    -                                                                      -
-    - Desc:          check if this instruction is referencing an interface -
-    -----------------------------------------------------------------------*/
-   int browseInterfaceMethodref() {
-      if (pool.isInterfaceMethodref(cptIndex)) return cptIndex; else return -1;
-   }
-}
-
-/*=======================================================================
- = Class:         Code_bipush                                           =
- =                                                                      =
- = Desc:          push byte                                             =
- =======================================================================*/
-class Code_bipush extends Code {
-   private int value;                  // value to push onto the stack
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_bipush(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get value being pushed
-      value = (byte)ios.read();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(value);
-   }
-}
-
-/*=======================================================================
- = Class:         Code_iinc                                             =
- =                                                                      =
- = Desc:          increment local variable by constant                  =
- =======================================================================*/
-class Code_iinc extends Code_VarTable {
-   private int value;                  // increment value for the operation
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_iinc(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get the signed byte value for the increment
-      value = (byte)ios.read();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(" " + value);
-   }
-}
-
-/*=======================================================================
- = Class:         Code_invokeinterface                                  =
- =                                                                      =
- = Desc:          invoke interface method                               =
- =======================================================================*/
-class Code_invokeinterface extends Code_Pool {
-   private int count;                  // number of words to pop off the stack
-   private int unused;
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_invokeinterface(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get the number of words to pop off the operand stack
-      count = ios.read();
-
-      // get past the unused byte
-      unused = ios.read();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(" " + count);
-   }
-}
-
-/*=======================================================================
- = Class:         Code_ldc                                              =
- =                                                                      =
- = Desc:          push item from runtime constant pool                  =
- =======================================================================*/
-class Code_ldc extends Code {
-   private int cptIndex;               // index into the constant pool table
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_ldc(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get the index into the constant pool table for the constant (note that index is a byte)
-      cptIndex = ios.read();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(pool.toString(cptIndex));
-   }
-}
-
-/*=======================================================================
- = Class:         Code_lookupswitch                                     =
- =                                                                      =
- = Desc:          switch instruction for non-sequential indexes         =
- =======================================================================*/
-class Code_lookupswitch extends Code {
-   private int lookupSkip;             // number of pad bytes to allign default integer
-   private int lookupDefault;          // offset to the default handler
-   private int count;                  // number of match-branch pairs
-   private int[] match;                // case values to match int
-   private int[] branch;               // offset to the handler for the match
 
    /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
+    - Field:         opbytes, opdesc, opkind                               -
     -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
+    - Desc:          dispatch table unpacked once by opcode so that the    -
+    -                decoder does no string parsing                        -
+    -                   opbytes[i] = number of bytes for operation         -
+    -                   opdesc[i]  = bytecode operation                    -
+    -                   opkind[i]  = layout of the operands                -
     -----------------------------------------------------------------------*/
-   Code_lookupswitch(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // calculate the number of bytes to skip to make default offset be 4 byte alligned
-      lookupSkip = 4 - (pc + 1) % 4;
-      if (lookupSkip == 4) lookupSkip = 0;
-      if (lookupSkip > 0) ios.skip(lookupSkip);
-
-      // get the offset to the default handler
-      lookupDefault = ios.readInt();
-
-      // get the number of match-branch pairs
-      count = ios.readInt();
-
-      // allocate the arrays to hold the pairs
-      match = new int[count];
-      branch = new int[count];
-
-      for (int i = 0; i < count; i++) {
-         // get the value to match for the case
-         match[i] = ios.readInt();
-
-         // get the branch offset for this match
-         branch[i] = ios.readInt();
+   static final int[] opbytes = new int[dispatch.length];
+   static final String[] opdesc = new String[dispatch.length];
+   static final int[] opkind = new int[dispatch.length];
+   static {
+      for (int i = 0; i < dispatch.length; i++) {
+         opbytes[i] = Integer.parseInt((String)dispatch[i][1]);
+         opdesc[i] = (String)dispatch[i][2];
+         opkind[i] = (dispatch[i][3] == null) ? NONE : (Integer)dispatch[i][3];
       }
-
-      // calculate the number of bytes that the lookupswitch occupies
-      opbytes = 9 + lookupSkip + count*8;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        getLabel                                              -
-    -                                                                      -
-    - Desc:          label needed for branch addresses                     -
-    -----------------------------------------------------------------------*/
-   void getLabel(Code_Collection code) {
-      for (int i = 0; i < count; i++) code.setLabel(pc+branch[i]);
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.println("");
-      for (int i = 0; i < count; i++) {
-         out.println(pad("        " + match[i] + " :", ClassFile.SPACER) +
-            Code_Collection.toLabel(pc+branch[i]));
-      }
-      out.println(pad("        default :", ClassFile.SPACER) + Code_Collection.toLabel(pc+lookupDefault));
-   }
-}
-
-/*=======================================================================
- = Class:         Code_multianewarray                                   =
- =                                                                      =
- = Desc:          create a new multidimensional array                   =
- =======================================================================*/
-class Code_multianewarray extends Code_Pool {
-   private int dimensions;             // number of dimensions to allocate for the multidimensional array
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_multianewarray(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get number dimensions to allocate
-      dimensions = ios.read();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(" " + dimensions);
-   }
-}
-
-/*=======================================================================
- = Class:         Code_newarray                                         =
- =                                                                      =
- = Desc:          create new array                                      =
- =======================================================================*/
-class Code_newarray extends Code {
-   private int arrayType;              // type of array to allocate
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_newarray(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get the array type
-      arrayType = ios.read();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(getArrayType(arrayType));
    }
 
    /*-----------------------------------------------------------------------
@@ -1123,166 +768,3 @@ class Code_newarray extends Code {
       {"11", "long"},
    };
 }
-
-/*=======================================================================
- = Class:         Code_sipush                                           =
- =                                                                      =
- = Desc:          push short                                            =
- =======================================================================*/
-class Code_sipush extends Code {
-   private int value;                  // short value to be pushed on stack
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_sipush(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get signed short value to push on stack
-      value = (short)ios.readShort();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(value);
-   }
-}
-
-/*=======================================================================
- = Class:         Code_tableswitch                                      =
- =                                                                      =
- = Desc:          switch instruction for sequential indexes             =
- =======================================================================*/
-class Code_tableswitch extends Code {
-   private int tableSkip;              // number of bytes to skip to 4-byte allign the default offset
-   private int tableDefault;           // branch offset for the default handler
-   private int tableLow;               // low value for sequence of matches
-   private int tableHigh;              // high value for sequence of matches
-   private int count;                  // number of cases in switch (computed internally from low & high)
-   private int[] branch;               // branch offset for match
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_tableswitch(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // calculate the number of bytes to skip to 4-byte allign the default branch offset
-      tableSkip = 4 - (pc + 1) % 4;
-      if (tableSkip == 4) tableSkip = 0;
-      if (tableSkip > 0) ios.skip(tableSkip);
-
-      // get the default branch offset for the default case in the switch
-      tableDefault = ios.readInt();
-
-      // get the low value for the matches
-      tableLow = ios.readInt();
-
-      // get the high value for the matches
-      tableHigh = ios.readInt();
-
-      // compute the number of entries
-      count = tableHigh - tableLow + 1;
-
-      // allocate the array to hold the branch offsets
-      branch = new int[count];
-
-      // read in the branch offsets
-      for (int i = 0; i < count; i++) branch[i] = ios.readInt();
-
-      // calculate the number of bytes that the tableswitch operation occupies
-      opbytes = 13 + tableSkip + count*4;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        getLabel                                              -
-    -                                                                      -
-    - Desc:          label needed for branch addresses                     -
-    -----------------------------------------------------------------------*/
-   void getLabel(Code_Collection code) {
-      for (int i = 0; i < count; i++) code.setLabel(pc+branch[i]);
-      code.setLabel(pc+tableDefault);
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.println(tableLow + " " + tableHigh);
-      for (int i = 0; i < count; i++) {
-         out.println(pad("", ClassFile.SPACER) + Code_Collection.toLabel(pc+branch[i]));
-      }
-      out.println(pad("       default :", ClassFile.SPACER) + Code_Collection.toLabel(pc+tableDefault));
-   }
-}
-
-/*=======================================================================
- = Class:         Code_wide                                             =
- =                                                                      =
- = Desc:          extend access of local variable index to 32 bit range =
- =======================================================================*/
-class Code_wide extends Code {
-   private int widecode;               // opcode for the wide extended instruction
-   private int lvtIndex;               // index into the local variable table
-   private int value;                  // increment value for the wide iinc operation
-   private String wideDesc;            // description of the wide extended operation
-
-   /*-----------------------------------------------------------------------
-    - Method:        Class Constructor                                     -
-    -                                                                      -
-    - Desc:          read in the instruction from the input stream         -
-    -----------------------------------------------------------------------*/
-   Code_wide(DataInputStream ios, Pool_Collection pool, int opcode, int pc) throws IOException {
-      super(ios, pool, opcode, pc);
-
-      // get the opcode being wide extended
-      widecode = ios.read();
-
-      // get the index into the local variable table
-      lvtIndex = ios.readShort();
-
-      // get the description of the wide extended opcode
-      wideDesc = (String)Code_Collection.dispatch[lvtIndex][2];
-
-      // if the iinc is being extended, then 2 additional bytes need to be read in
-      if (wideDesc.equals("iinc")) {
-         // set the number of bytes occupied by the wide extended iinc opcode
-         opbytes = 6;
-
-         // read the increment value for the iinc instruction
-         value = ios.readShort();
-      }
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasminDesc                                            -
-    -                                                                      -
-    - Desc:          override the operation description (don't want 'wide')-
-    -----------------------------------------------------------------------*/
-   String jasminDesc() {
-      return wideDesc;
-   }
-
-   /*-----------------------------------------------------------------------
-    - Method:        jasmin                                                -
-    -                                                                      -
-    - Desc:          output the operation instruction to the jasmin file   -
-    -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) {
-      super.jasmin(out);
-      out.print(lvtIndex);
-      if (wideDesc.equals("iinc")) out.print(" " + value);
-   }
-}
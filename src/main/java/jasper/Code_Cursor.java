@@ -0,0 +1,316 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Code_Cursor.java
+ > Purpose:     Read-only walk over the bytecode of a method
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+
+/*=======================================================================
+ = Class:         Code_Cursor                                           =
+ =                                                                      =
+ = Desc:          steps through the instructions of a method straight   =
+ =                from the class file bytes.  the opcode, pc and        =
+ =                operands of the current instruction are decoded as    =
+ =                they are asked for, so a walk allocates nothing - and =
+ =                the same cursor can be pointed at method after method =
+ =                                                                      =
+ =                   Code_Cursor c = classFile.codeCursor(i);           =
+ =                   while ((c != null) && c.next()) {                  =
+ =                      if (c.getOpcode() == 0xb6) ... c.getPoolIndex() =
+ =                   }                                                  =
+ =======================================================================*/
+public final class Code_Cursor {
+   private byte[] buf;                 // bytes holding the class file
+   private int start;                  // offset of the first instruction (pc 0) in buf
+   private int length;                 // number of bytes of code
+   private int pc;                     // program counter of the current instruction
+   private int next;                   // program counter of the instruction after it
+   private int opcode;                 // opcode of the current instruction
+   private int kind;                   // layout of the operands (Code_Collection.NONE ... WIDE)
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          cursor over no code (until pointed at a method)       -
+    -----------------------------------------------------------------------*/
+   public Code_Cursor() {
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        reset                                                 -
+    -                                                                      -
+    - Desc:          point the cursor at the code held in buf[start..] -   -
+    -                next() then steps to the first instruction            -
+    -----------------------------------------------------------------------*/
+   void reset(byte[] buf, int start, int length) {
+      this.buf = buf;
+      this.start = start;
+      this.length = length;
+      rewind();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        rewind                                                -
+    -                                                                      -
+    - Desc:          go back to before the first instruction               -
+    -----------------------------------------------------------------------*/
+   public void rewind() {
+      pc = -1;
+      next = 0;
+      opcode = -1;
+      kind = Code_Collection.NONE;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        next                                                  -
+    -                                                                      -
+    - Desc:          step to the next instruction (false past the end)     -
+    -----------------------------------------------------------------------*/
+   public boolean next() {
+      if (next >= length) {
+         pc = next;
+         opcode = -1;
+         kind = Code_Collection.NONE;
+         return false;
+      }
+      pc = next;
+      opcode = buf[start + pc] & 0xff;
+      kind = Code_Collection.opkind[opcode];
+      next = pc + size();
+      return true;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        size                                                  -
+    -                                                                      -
+    - Desc:          number of bytes the current instruction occupies      -
+    -----------------------------------------------------------------------*/
+   private int size() {
+      switch (kind) {
+         case Code_Collection.LOOKUPSWITCH: return switchSize(9, s4(5 + padding()), 8);
+         case Code_Collection.TABLESWITCH:  return switchSize(13, (long)s4(9 + padding()) - s4(5 + padding()) + 1, 4);
+         case Code_Collection.WIDE:         return (u1(1) == 0x84) ? 6 : 4;
+         default:                           return Code_Collection.opbytes[opcode];
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        switchSize                                            -
+    -                                                                      -
+    - Desc:          number of bytes a switch occupies.  a count that is   -
+    -                negative or too large for the code left gives a size  -
+    -                that runs past the end, so the caller's overrun check -
+    -                rejects it rather than the int wrapping around        -
+    -----------------------------------------------------------------------*/
+   private int switchSize(int fixed, long count, int each) {
+      long retVal = fixed + padding() + count * each;
+      if ((count < 0) || (retVal > length - pc)) return length - pc + 1;
+      return (int)retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        padding                                               -
+    -                                                                      -
+    - Desc:          bytes skipped to 4-byte align a switch's operands     -
+    -----------------------------------------------------------------------*/
+   private int padding() {
+      return (4 - (pc + 1) % 4) % 4;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        u1, s1, u2, s2, s4                                    -
+    -                                                                      -
+    - Desc:          operand bytes at an offset from the current opcode    -
+    -----------------------------------------------------------------------*/
+   private int u1(int offset) {
+      return buf[start + pc + offset] & 0xff;
+   }
+
+   private int s1(int offset) {
+      return buf[start + pc + offset];
+   }
+
+   private int u2(int offset) {
+      int i = start + pc + offset;
+      return ((buf[i] & 0xff) << 8) | (buf[i+1] & 0xff);
+   }
+
+   private int s2(int offset) {
+      return (short)u2(offset);
+   }
+
+   private int s4(int offset) {
+      int i = start + pc + offset;
+      return ((buf[i] & 0xff) << 24) | ((buf[i+1] & 0xff) << 16) | ((buf[i+2] & 0xff) << 8) | (buf[i+3] & 0xff);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getOpcode                                             -
+    -                                                                      -
+    - Desc:          opcode of the current instruction (0xc4 for wide)     -
+    -----------------------------------------------------------------------*/
+   public int getOpcode() {
+      return opcode;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getBaseOpcode                                         -
+    -                                                                      -
+    - Desc:          opcode with any wide prefix taken off (e.g. iload for -
+    -                "wide iload")                                         -
+    -----------------------------------------------------------------------*/
+   public int getBaseOpcode() {
+      return (kind == Code_Collection.WIDE) ? u1(1) : opcode;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getName                                               -
+    -                                                                      -
+    - Desc:          mnemonic of the current instruction (e.g. "iload";    -
+    -                the base opcode's for wide)                           -
+    -----------------------------------------------------------------------*/
+   public String getName() {
+      return Code_Collection.opdesc[getBaseOpcode()];
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getPC                                                 -
+    -                                                                      -
+    - Desc:          program counter of the current instruction            -
+    -----------------------------------------------------------------------*/
+   public int getPC() {
+      return pc;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getLength                                             -
+    -                                                                      -
+    - Desc:          number of bytes the current instruction occupies      -
+    -----------------------------------------------------------------------*/
+   public int getLength() {
+      return next - pc;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getCodeLength                                         -
+    -                                                                      -
+    - Desc:          number of bytes of code in the method                 -
+    -----------------------------------------------------------------------*/
+   public int getCodeLength() {
+      return length;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        isWide                                                -
+    -                                                                      -
+    - Desc:          test if the instruction has the wide prefix           -
+    -----------------------------------------------------------------------*/
+   public boolean isWide() {
+      return kind == Code_Collection.WIDE;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getPoolIndex                                          -
+    -                                                                      -
+    - Desc:          constant referenced by the instruction (index into    -
+    -                the constant pool table, 0 if none)                   -
+    -----------------------------------------------------------------------*/
+   public int getPoolIndex() {
+      switch (kind) {
+         case Code_Collection.LDC:             return u1(1);
+         case Code_Collection.POOL:
+         case Code_Collection.INVOKEINTERFACE:
+         case Code_Collection.INVOKEDYNAMIC:
+         case Code_Collection.MULTIANEWARRAY:  return u2(1);
+         default:                              return 0;
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getLocal                                              -
+    -                                                                      -
+    - Desc:          local variable used by the instruction (index into    -
+    -                the local variable table, -1 if none - the implicit   -
+    -                index of e.g. iload_1 is not reported)                -
+    -----------------------------------------------------------------------*/
+   public int getLocal() {
+      switch (kind) {
+         case Code_Collection.LOCAL:
+         case Code_Collection.IINC:  return u1(1);
+         case Code_Collection.WIDE:  return u2(2);
+         default:                    return -1;
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getValue                                              -
+    -                                                                      -
+    - Desc:          immediate value of the instruction: the value pushed  -
+    -                by bipush and sipush, the increment of iinc, the      -
+    -                array type of newarray, the dimensions of             -
+    -                multianewarray and the count of invokeinterface       -
+    -                (0 if none)                                           -
+    -----------------------------------------------------------------------*/
+   public int getValue() {
+      switch (kind) {
+         case Code_Collection.BIPUSH:          return s1(1);
+         case Code_Collection.SIPUSH:          return s2(1);
+         case Code_Collection.IINC:            return s1(2);
+         case Code_Collection.NEWARRAY:        return u1(1);
+         case Code_Collection.MULTIANEWARRAY:
+         case Code_Collection.INVOKEINTERFACE: return u1(3);
+         case Code_Collection.WIDE:            return (u1(1) == 0x84) ? s2(4) : 0;
+         default:                              return 0;
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getTarget                                             -
+    -                                                                      -
+    - Desc:          program counter branched to (the default case for a   -
+    -                switch, -1 if the instruction doesn't branch)         -
+    -----------------------------------------------------------------------*/
+   public int getTarget() {
+      switch (kind) {
+         case Code_Collection.BRANCH:       return pc + s2(1);
+         case Code_Collection.BRANCH_INT:   return pc + s4(1);
+         case Code_Collection.LOOKUPSWITCH:
+         case Code_Collection.TABLESWITCH:  return pc + s4(1 + padding());
+         default:                           return -1;
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getSwitchCount                                        -
+    -                                                                      -
+    - Desc:          number of cases in a switch (0 if not a switch)       -
+    -----------------------------------------------------------------------*/
+   public int getSwitchCount() {
+      switch (kind) {
+         case Code_Collection.LOOKUPSWITCH: return s4(5 + padding());
+         case Code_Collection.TABLESWITCH:  return s4(9 + padding()) - s4(5 + padding()) + 1;
+         default:                           return 0;
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getSwitchKey                                          -
+    -                                                                      -
+    - Desc:          value matched by a case of the switch                 -
+    -----------------------------------------------------------------------*/
+   public int getSwitchKey(int i) {
+      if (kind == Code_Collection.TABLESWITCH) return s4(5 + padding()) + i;
+      return s4(9 + padding() + i * 8);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getSwitchTarget                                       -
+    -                                                                      -
+    - Desc:          program counter branched to by a case of the switch   -
+    -----------------------------------------------------------------------*/
+   public int getSwitchTarget(int i) {
+      if (kind == Code_Collection.TABLESWITCH) return pc + s4(13 + padding() + i * 4);
+      return pc + s4(13 + padding() + i * 8);
+   }
+}
@@ -0,0 +1,169 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Console.java
+ > Purpose:     Console output that can be captured one thread at a time
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+import java.io.*;
+
+/*=======================================================================
+ = Class:         Console                                               =
+ =                                                                      =
+ = Desc:          stands in for System.out while classes are processed  =
+ =                on worker threads.  a thread that has begun a capture =
+ =                prints into its own buffer, so the output of each     =
+ =                class can be written out whole and in a fixed order.  =
+ =                all other threads print straight through              =
+ =======================================================================*/
+final class Console extends PrintStream {
+   private final PrintStream out;                          // the real console
+   private final String encoding;                          // charset the real console uses
+
+   private static final ThreadLocal<Capture> capture = new ThreadLocal<Capture>();
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          wrap the real console                                 -
+    -----------------------------------------------------------------------*/
+   private Console(PrintStream out) {
+      super(out);
+      this.out = out;
+      String s = System.getProperty("stdout.encoding", System.getProperty("sun.stdout.encoding"));
+      if (s == null) s = java.nio.charset.Charset.defaultCharset().name();
+      this.encoding = s;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        install                                               -
+    -                                                                      -
+    - Desc:          put the console in place of System.out                -
+    -----------------------------------------------------------------------*/
+   static synchronized Console install() {
+      if (System.out instanceof Console) return (Console)System.out;
+      Console retVal = new Console(System.out);
+      System.setOut(retVal);
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        begin                                                 -
+    -                                                                      -
+    - Desc:          start capturing the current thread's output (captures -
+    -                nest - the one begun last is printed into)            -
+    -----------------------------------------------------------------------*/
+   void begin() {
+      capture.set(new Capture(encoding, capture.get()));
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        end                                                   -
+    -                                                                      -
+    - Desc:          stop capturing and return what the thread printed     -
+    -----------------------------------------------------------------------*/
+   byte[] end() {
+      Capture c = capture.get();
+      if (c == null) return new byte[0];
+      c.stream.flush();
+      if (c.outer != null) {
+         capture.set(c.outer);
+      } else {
+         capture.remove();
+      }
+      return c.buffer.toByteArray();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        emit                                                  -
+    -                                                                      -
+    - Desc:          write captured output to the real console             -
+    -----------------------------------------------------------------------*/
+   void emit(byte[] bytes) {
+      out.write(bytes, 0, bytes.length);
+      out.flush();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        target                                                -
+    -                                                                      -
+    - Desc:          stream for the current thread                         -
+    -----------------------------------------------------------------------*/
+   private PrintStream target() {
+      Capture c = capture.get();
+      return (c != null) ? c.stream : out;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        PrintStream overrides                                 -
+    -                                                                      -
+    - Desc:          pass everything through to the current thread stream  -
+    -----------------------------------------------------------------------*/
+   public void write(int b)                           { target().write(b); }
+   public void write(byte[] b, int off, int len)      { target().write(b, off, len); }
+   public void flush()                                { target().flush(); }
+   public void close()                                { target().flush(); }
+   public boolean checkError()                        { return target().checkError(); }
+   public void print(boolean b)                       { target().print(b); }
+   public void print(char c)                          { target().print(c); }
+   public void print(int i)                           { target().print(i); }
+   public void print(long l)                          { target().print(l); }
+   public void print(float f)                         { target().print(f); }
+   public void print(double d)                        { target().print(d); }
+   public void print(char[] s)                        { target().print(s); }
+   public void print(String s)                        { target().print(s); }
+   public void print(Object obj)                      { target().print(obj); }
+   public void println()                              { target().println(); }
+   public void println(boolean x)                     { target().println(x); }
+   public void println(char x)                        { target().println(x); }
+   public void println(int x)                         { target().println(x); }
+   public void println(long x)                        { target().println(x); }
+   public void println(float x)                       { target().println(x); }
+   public void println(double x)                      { target().println(x); }
+   public void println(char[] x)                      { target().println(x); }
+   public void println(String x)                      { target().println(x); }
+   public void println(Object x)                      { target().println(x); }
+   public PrintStream printf(String format, Object... args) {
+      return target().printf(format, args);
+   }
+   public PrintStream printf(java.util.Locale l, String format, Object... args) {
+      return target().printf(l, format, args);
+   }
+   public PrintStream format(String format, Object... args) {
+      return target().format(format, args);
+   }
+   public PrintStream format(java.util.Locale l, String format, Object... args) {
+      return target().format(l, format, args);
+   }
+   public PrintStream append(CharSequence csq)        { return target().append(csq); }
+   public PrintStream append(CharSequence csq, int start, int end) { return target().append(csq, start, end); }
+   public PrintStream append(char c)                  { return target().append(c); }
+}
+
+/*=======================================================================
+ = Class:         Capture                                               =
+ =                                                                      =
+ = Desc:          output captured for a thread (and the capture that it =
+ =                was begun within)                                     =
+ =======================================================================*/
+final class Capture {
+   final ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);   // what was printed
+   final PrintStream stream;                                               // prints into the buffer
+   final Capture outer;                                                    // capture begun before (or null)
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          print into the buffer in the console's charset        -
+    -----------------------------------------------------------------------*/
+   Capture(String encoding, Capture outer) {
+      PrintStream p;
+      try {
+         p = new PrintStream(buffer, false, encoding);
+      } catch (UnsupportedEncodingException e) {
+         p = new PrintStream(buffer, false);
+      }
+      this.stream = p;
+      this.outer = outer;
+   }
+}
@@ -0,0 +1,176 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Descriptor.java
+ > Purpose:     Parsed field and method type descriptors
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+
+/*=======================================================================
+ = Class:         Descriptor                                            =
+ =                                                                      =
+ = Desc:          field or method type descriptor broken into the java  =
+ =                types it names.  descriptors are immutable and shared =
+ =                by the class files read with the same symbol table    =
+ =======================================================================*/
+final class Descriptor {
+   final String descriptor;            // descriptor as it appears in the class file
+   final boolean method;               // true if a method descriptor (has a parameter list)
+   final String[] types;               // field type, or method return type
+   final String[] parameters;          // method parameter types (empty for fields)
+   final String[] classes;             // internal names of the classes named (no duplicates)
+   private final String browse;        // descriptor formatted to resemble java code
+
+   /*-----------------------------------------------------------------------
+    - Field:         NONE                                                  -
+    -                                                                      -
+    - Desc:          shared empty type list                                -
+    -----------------------------------------------------------------------*/
+   private static final String[] NONE = new String[0];
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          parse the descriptor in a single pass (the type names -
+    -                are the symbol table's copies)                        -
+    -----------------------------------------------------------------------*/
+   Descriptor(String s, Symbol_Table symbols) {
+      descriptor = s;
+      java.util.ArrayList<String> list = new java.util.ArrayList<String>();
+      int i = 0;
+
+      // pull off the function parameters
+      method = (s.length() > 0) && (s.charAt(0) == '(');
+      if (method) {
+         i = parse(s, 1, list, symbols);
+         parameters = toArray(list);
+         list.clear();
+         i = s.indexOf(')', i) + 1;
+         if (i == 0) i = s.length();
+      } else {
+         parameters = NONE;
+      }
+
+      // get the field type or the method return type
+      parse(s, i, list, symbols);
+      types = toArray(list);
+      classes = classes(s, symbols);
+
+      // format the descriptor the way the browse output shows it
+      StringBuilder b = new StringBuilder();
+      join(b, types);
+      if (method) {
+         b.append(" (");
+         join(b, parameters);
+         b.append(')');
+      }
+      browse = b.toString();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        parse                                                 -
+    -                                                                      -
+    - Desc:          add the java types from index i up to the end of the  -
+    -                string or a ')' to the list (returns the stop index)  -
+    -----------------------------------------------------------------------*/
+   private static int parse(String s, int i, java.util.ArrayList<String> list, Symbol_Table symbols) {
+      int length = s.length();
+      while ((i < length) && (s.charAt(i) != ')')) {
+         // pull off the array indexes
+         int dims = 0;
+         while ((i < length) && (s.charAt(i) == '[')) {
+            i++;
+            dims++;
+         }
+
+         // get the type
+         String type = "";
+         if (i < length) {
+            switch (s.charAt(i++)) {
+               case 'Z': type = "boolean"; break;
+               case 'B': type = "byte";    break;
+               case 'C': type = "char";    break;
+               case 'S': type = "short";   break;
+               case 'I': type = "int";     break;
+               case 'J': type = "long";    break;
+               case 'F': type = "float";   break;
+               case 'D': type = "double";  break;
+               case 'V': type = "void";    break;
+               case 'L':
+                  // object type
+                  int j = s.indexOf(';', i);
+                  if (j < 0) j = length;
+                  type = s.substring(i, j).replace('/', '.');
+                  i = j;
+                  break;
+               case ')':
+                  // end of the function parameters
+                  i = i - 1;
+                  break;
+            }
+         }
+         if (dims > 0) {
+            StringBuilder b = new StringBuilder(type);
+            for (int k = 0; k < dims; k++) b.append("[]");
+            type = b.toString();
+         }
+         list.add(symbols.canonical(type));
+
+         // go past semicolons
+         while ((i < length) && (s.charAt(i) == ';')) i++;
+      }
+      return i;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        classes                                               -
+    -                                                                      -
+    - Desc:          internal names of the classes named in the descriptor -
+    -                (e.g. "java/lang/String"), each listed once           -
+    -----------------------------------------------------------------------*/
+   private static String[] classes(String s, Symbol_Table symbols) {
+      java.util.ArrayList<String> list = new java.util.ArrayList<String>();
+      int length = s.length();
+      for (int i = 0; i < length; i++) {
+         // every other character of a descriptor stands alone
+         if (s.charAt(i) != 'L') continue;
+         int j = s.indexOf(';', i);
+         if (j < 0) j = length;
+         String name = symbols.canonical(s.substring(i + 1, j));
+         if (!list.contains(name)) list.add(name);
+         i = j;
+      }
+      return toArray(list);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        toArray                                               -
+    -                                                                      -
+    - Desc:          copy the list of types to an array                    -
+    -----------------------------------------------------------------------*/
+   private static String[] toArray(java.util.ArrayList<String> list) {
+      if (list.isEmpty()) return NONE;
+      return list.toArray(new String[list.size()]);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        join                                                  -
+    -                                                                      -
+    - Desc:          append the types separated by commas                  -
+    -----------------------------------------------------------------------*/
+   private static void join(StringBuilder b, String[] types) {
+      for (int i = 0; i < types.length; i++) {
+         if (i > 0) b.append(", ");
+         b.append(types[i]);
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        toString                                              -
+    -                                                                      -
+    - Desc:          descriptor formatted to resemble java code            -
+    -----------------------------------------------------------------------*/
+   public String toString() {
+      return browse;
+   }
+}
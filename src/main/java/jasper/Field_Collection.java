@@ -21,9 +21,9 @@ class Field_Collection {
     -                                                                      -
     - Desc:          read in the field definitions from input stream       -
     -----------------------------------------------------------------------*/
-   Field_Collection(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Field_Collection(ClassBuffer ios, Pool_Collection pool) throws IOException {
       // get the number of fields
-      count  = ios.readShort();
+      count  = ios.readUnsignedShort();
 
       // read in the fields
       fields = new Field[count];
@@ -35,10 +35,20 @@ class Field_Collection {
     -                                                                      -
     - Desc:          output the .field directives to the jasmin file       -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
+   void jasmin(Jasmin_Writer out) throws IOException {
       for (int i = 0; i < count; i++) fields[i].jasmin(out);
    }
 
+   /*-----------------------------------------------------------------------
+    - Method:        jasmin                                                -
+    -                                                                      -
+    - Desc:          output the .field directive for the field at the      -
+    -                cursor                                                -
+    -----------------------------------------------------------------------*/
+   static void jasmin(Jasmin_Writer out, ClassBuffer ios, Pool_Collection pool) throws IOException {
+      new Field(ios, pool).jasmin(out);
+   }
+
    /*-----------------------------------------------------------------------
     - Method:        browseFields                                          -
     -                                                                      -
@@ -51,6 +61,15 @@ class Field_Collection {
       }
       return retVal;
    }
+
+   /*-----------------------------------------------------------------------
+    - Method:        classReferences                                       -
+    -                                                                      -
+    - Desc:          add the classes named by the field types to the set   -
+    -----------------------------------------------------------------------*/
+   void classReferences(java.util.Set<String> refs) {
+      for (int i = 0; i < count; i++) fields[i].classReferences(refs);
+   }
 }
 
 /*=======================================================================
@@ -70,7 +89,7 @@ class Field {
     -                                                                      -
     - Desc:          read in the field definition from input stream        -
     -----------------------------------------------------------------------*/
-   Field(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Field(ClassBuffer ios, Pool_Collection pool) throws IOException {
       // save off the pool object for later reference
       this.pool = pool;
 
@@ -78,10 +97,10 @@ class Field {
       accessFlags = ios.readShort();
 
       // get the index for the field name
-      nameIndex = ios.readShort();
+      nameIndex = ios.readUnsignedShort();
 
       // get the index for the field type descriptor
-      descriptorIndex = ios.readShort();
+      descriptorIndex = ios.readUnsignedShort();
 
       // read in the field attributes
       attributes = new Attribute_Collection(ios, pool);
@@ -109,10 +128,10 @@ class Field {
     -                                                                      -
     - Desc:          output the .field directive to the jasmin file        -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
-      out.println(ClassFile.pad(".field", ClassFile.SPACER) + accessString() +
-         pool.toString(nameIndex) + " " + pool.toString(descriptorIndex) +
-         attributes.jasminConstantValue());
+   void jasmin(Jasmin_Writer out) throws IOException {
+      out.print(".field").pad(ClassFile.SPACER).print(accessString());
+      out.print(pool.toString(nameIndex)).print(' ').print(pool.toString(descriptorIndex));
+      out.println(attributes.jasminConstantValue());
    }
 
    /*-----------------------------------------------------------------------
@@ -125,4 +144,13 @@ class Field {
          pool.browseDescriptor(descriptorIndex) + " "  + thisClass + "." +
          pool.browseString(nameIndex) + attributes.browseConstantValue();
    }
+
+   /*-----------------------------------------------------------------------
+    - Method:        classReferences                                       -
+    -                                                                      -
+    - Desc:          add the classes named by the field type to the set    -
+    -----------------------------------------------------------------------*/
+   void classReferences(java.util.Set<String> refs) {
+      pool.descriptorReferences(descriptorIndex, refs);
+   }
 }
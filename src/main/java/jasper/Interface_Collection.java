@@ -22,16 +22,16 @@ class Interface_Collection {
     -                                                                      -
     - Desc:          read in the interfaces definitions from input stream  -
     -----------------------------------------------------------------------*/
-   Interface_Collection(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Interface_Collection(ClassBuffer ios, Pool_Collection pool) throws IOException {
       // save off the pool object for later reference
       this.pool = pool;
 
       // get number of interfaces implemented;
-      count  = ios.readShort();
+      count  = ios.readUnsignedShort();
 
       // grab the interface indexes from the input stream
       interfaces = new int[count];
-      for (int i = 0; i < count; i++) interfaces[i] = ios.readShort();
+      for (int i = 0; i < count; i++) interfaces[i] = ios.readUnsignedShort();
    }
 
    /*-----------------------------------------------------------------------
@@ -39,10 +39,17 @@ class Interface_Collection {
     -                                                                      -
     - Desc:          output the .implements directives to jasmin file      -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
-      for (int i = 0; i < count; i++) {
-         out.println(ClassFile.pad(".implements", ClassFile.SPACER) + pool.toString(interfaces[i]));
-      }
+   void jasmin(Jasmin_Writer out) throws IOException {
+      for (int i = 0; i < count; i++) jasmin(out, pool, interfaces[i]);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        jasmin                                                -
+    -                                                                      -
+    - Desc:          output the .implements directive for an interface     -
+    -----------------------------------------------------------------------*/
+   static void jasmin(Jasmin_Writer out, Pool_Collection pool, int cptIndex) {
+      out.print(".implements").pad(ClassFile.SPACER).println(pool.toString(cptIndex));
    }
 
    /*-----------------------------------------------------------------------
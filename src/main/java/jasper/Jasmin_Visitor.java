@@ -0,0 +1,108 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Jasmin_Visitor.java
+ > Purpose:     Jasmin assembly output driven by Class_Reader
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+import java.io.*;
+
+/*=======================================================================
+ = Class:         Jasmin_Visitor                                        =
+ =                                                                      =
+ = Desc:          writes the same jasmin assembly as ClassFile.jasmin,  =
+ =                one field and method at a time as the reader comes to =
+ =                them - no ClassFile is built.  the .source directive  =
+ =                is found first by passing over the fields and methods =
+ =                to the class attributes, so nothing is held back:     =
+ =                                                                      =
+ =                   new Class_Reader(bytes).accept(                    =
+ =                      new Jasmin_Visitor(stream));                    =
+ =======================================================================*/
+public final class Jasmin_Visitor extends Class_Visitor {
+   private Jasmin_Writer out;          // writes the assembly to the stream
+   private Class_Reader reader;        // class file being read
+   private Pool_Collection pool;       // constant pool table
+   private int section = 0;            // 0 = class, 1 = fields, 2 = methods
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          the stream is flushed when the class is done, but     -
+    -                left open                                             -
+    -----------------------------------------------------------------------*/
+   public Jasmin_Visitor(OutputStream stream) {
+      out = new Jasmin_Writer(stream);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitHeader                                           -
+    -                                                                      -
+    - Desc:          output the .source, .class and .super directives (the -
+    -                constants are not needed one by one)                  -
+    -----------------------------------------------------------------------*/
+   public boolean visitHeader(Class_Reader reader, int minorVersion, int majorVersion, int accessFlags,
+         int thisClass, int superClass) throws IOException {
+      this.reader = reader;
+      this.pool = reader.getPool();
+      new Attribute_Collection(reader.at(reader.getAttributes()), pool).jasmin(out);
+      ClassFile.jasminClass(out, pool, accessFlags, thisClass, superClass);
+      return false;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitInterface                                        -
+    -                                                                      -
+    - Desc:          output the .implements directive                      -
+    -----------------------------------------------------------------------*/
+   public void visitInterface(int cptIndex) {
+      Interface_Collection.jasmin(out, pool, cptIndex);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitField                                            -
+    -                                                                      -
+    - Desc:          output the .field directive                           -
+    -----------------------------------------------------------------------*/
+   public boolean visitField(int offset, int accessFlags, int nameIndex, int descriptorIndex)
+         throws IOException {
+      section(1);
+      Field_Collection.jasmin(out, reader.at(offset), pool);
+      return false;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitMethod                                           -
+    -                                                                      -
+    - Desc:          output the .method directive and the code             -
+    -----------------------------------------------------------------------*/
+   public boolean visitMethod(int offset, int accessFlags, int nameIndex, int descriptorIndex)
+         throws IOException {
+      section(2);
+      Method_Collection.jasmin(out, reader.at(offset), pool);
+      return false;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        visitEnd                                              -
+    -                                                                      -
+    - Desc:          end the sections left open, and flush the stream      -
+    -----------------------------------------------------------------------*/
+   public void visitEnd() throws IOException {
+      section(2);
+      out.flush();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        section                                               -
+    -                                                                      -
+    - Desc:          end the sections before the one being entered (each   -
+    -                is followed by a blank line)                          -
+    -----------------------------------------------------------------------*/
+   private void section(int next) {
+      while (section < next) {
+         out.println();
+         section++;
+      }
+   }
+}
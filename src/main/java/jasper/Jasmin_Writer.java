@@ -0,0 +1,192 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Jasmin_Writer.java
+ > Purpose:     Buffered text output for jasmin assembly files
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+import java.io.*;
+
+/*=======================================================================
+ = Class:         Jasmin_Writer                                         =
+ =                                                                      =
+ = Desc:          writes jasmin assembly text through one large buffer. =
+ =                strings, numbers and labels are copied straight into  =
+ =                the buffer, and columns are padded by tracking the    =
+ =                position on the line - so nothing is built up only to =
+ =                be thrown away.  like PrintStream, write errors are   =
+ =                held rather than thrown (until flush)                 =
+ =======================================================================*/
+final class Jasmin_Writer {
+   private static final String NEWLINE = System.getProperty("line.separator");
+   private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+   private Writer out;                 // where the text goes
+   private char[] buf;                 // text not yet written out
+   private int count;                  // number of chars in the buffer
+   private int column;                 // position on the current line
+   private IOException error;          // first write error (thrown by flush)
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          text is written in the platform's default charset     -
+    -----------------------------------------------------------------------*/
+   Jasmin_Writer(OutputStream out) {
+      this.out = new OutputStreamWriter(out);
+      buf = new char[65536];
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          text is written to a character stream (a smaller      -
+    -                buffer will do, since the text is kept in memory)     -
+    -----------------------------------------------------------------------*/
+   Jasmin_Writer(Writer out) {
+      this.out = out;
+      buf = new char[4096];
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        print                                                 -
+    -                                                                      -
+    - Desc:          write a string                                        -
+    -----------------------------------------------------------------------*/
+   Jasmin_Writer print(String s) {
+      int length = s.length();
+      for (int i = 0; i < length; ) {
+         if (count == buf.length) drain();
+         int n = Math.min(length - i, buf.length - count);
+         s.getChars(i, i + n, buf, count);
+         count += n;
+         i += n;
+      }
+
+      // keep track of the column (strings rarely hold line breaks)
+      int i = s.lastIndexOf('\n');
+      column = (i < 0) ? column + length : length - i - 1;
+      return this;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        print                                                 -
+    -                                                                      -
+    - Desc:          write a character                                     -
+    -----------------------------------------------------------------------*/
+   Jasmin_Writer print(char c) {
+      if (count == buf.length) drain();
+      buf[count++] = c;
+      column = (c == '\n') ? 0 : column + 1;
+      return this;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        print                                                 -
+    -                                                                      -
+    - Desc:          write a number in decimal                             -
+    -----------------------------------------------------------------------*/
+   Jasmin_Writer print(int n) {
+      if (n == Integer.MIN_VALUE) return print("-2147483648");
+      if (n < 0) {
+         print('-');
+         n = -n;
+      }
+      int digits = 1;
+      for (int x = n; x >= 10; x /= 10) digits++;
+      if (count + digits > buf.length) drain();
+      for (int i = count + digits - 1; i >= count; i--) {
+         buf[i] = (char)('0' + (n % 10));
+         n /= 10;
+      }
+      count += digits;
+      column += digits;
+      return this;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        label                                                 -
+    -                                                                      -
+    - Desc:          write the label for a pc (e.g. "LABEL0x1f")           -
+    -----------------------------------------------------------------------*/
+   Jasmin_Writer label(int pc) {
+      print("LABEL0x");
+      int digits = 1;
+      for (int x = pc >>> 4; x != 0; x >>>= 4) digits++;
+      if (count + digits > buf.length) drain();
+      for (int i = count + digits - 1; i >= count; i--) {
+         buf[i] = HEX[pc & 0xf];
+         pc >>>= 4;
+      }
+      count += digits;
+      column += digits;
+      return this;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        pad                                                   -
+    -                                                                      -
+    - Desc:          fill the line with spaces out to the column           -
+    -----------------------------------------------------------------------*/
+   Jasmin_Writer pad(int width) {
+      while (column < width) {
+         if (count == buf.length) drain();
+         buf[count++] = ' ';
+         column++;
+      }
+      return this;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        println                                               -
+    -                                                                      -
+    - Desc:          end the line                                          -
+    -----------------------------------------------------------------------*/
+   Jasmin_Writer println() {
+      print(NEWLINE);
+      column = 0;
+      return this;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        println                                               -
+    -                                                                      -
+    - Desc:          write a string and end the line                       -
+    -----------------------------------------------------------------------*/
+   Jasmin_Writer println(String s) {
+      return print(s).println();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        flush                                                 -
+    -                                                                      -
+    - Desc:          write out the buffer (throws the first write error)   -
+    -----------------------------------------------------------------------*/
+   void flush() throws IOException {
+      drain();
+      if (error == null) {
+         try {
+            out.flush();
+         } catch (IOException e) {
+            error = e;
+         }
+      }
+      if (error != null) throw error;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        drain                                                 -
+    -                                                                      -
+    - Desc:          pass the buffered text on to the output stream        -
+    -----------------------------------------------------------------------*/
+   private void drain() {
+      if ((error == null) && (count > 0)) {
+         try {
+            out.write(buf, 0, count);
+         } catch (IOException e) {
+            error = e;
+         }
+      }
+      count = 0;
+   }
+}
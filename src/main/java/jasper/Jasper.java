@@ -26,13 +26,21 @@ public class Jasper {
       boolean jasmin = true;
       boolean browse = false;
       boolean recurse = false;
+      boolean dump = false;
+      int threads = 1;
 
-      java.util.Vector classList = new java.util.Vector();
+      Class_List classList = new Class_List();
+      java.util.ArrayList<String> archiveList = new java.util.ArrayList<String>();
 
       for (int i = 0; i < args.length; i++) {
          if (args[i].charAt(0) != '-') {
-            // put the class file name into the list of programs to read
-            addClassFile(args[i], classList);
+            if (isArchive(args[i])) {
+               // jar or directory - every class file in it gets read
+               archiveList.add(args[i]);
+            } else {
+               // put the class file name into the list of programs to read
+               classList.add(args[i]);
+            }
 
          } else {
             if (args[i].equals("--jasmin")) {
@@ -51,6 +59,18 @@ public class Jasper {
                // recurse through the inheritance and composition for the class
                recurse = true;
 
+            } else if(args[i].equals("-dump")) {
+               // echo and hex dump the attributes that jasper does not handle
+               dump = true;
+
+            } else if(args[i].equals("-parallel")) {
+               // process classes on every available processor
+               threads = Runtime.getRuntime().availableProcessors();
+
+            } else if(args[i].equals("-threads") && (i + 1 < args.length) && args[i+1].matches("[0-9]+")) {
+               // process classes on the given number of threads
+               threads = Math.max(1, Integer.parseInt(args[++i]));
+
             } else if(args[i].equals("-version")) {
                // print out the program name and version number
                printVersion();
@@ -79,296 +99,69 @@ public class Jasper {
          }
       }
 
-      // read in the files (and add new ones along the way for recurse option
-      for (int i = 0; i < classList.size(); i++) {
-         // get the next class to read in
-         String fileName = (String)classList.elementAt(i);
-
-         // pull in the class
-         ClassFile cls = new ClassFile(fileName);
-
-         // output the assembly files
-         if (jasmin) cls.jasmin();
+      Jasper_Run run = new Jasper_Run(jasmin, browse, recurse, dump, threads, classList);
+      try {
+         // read in the jars and directories (each one in a single pass)
+         for (int i = 0; i < archiveList.size(); i++) run.readArchive(archiveList.get(i));
 
-         // echo the browse output
-         if (browse) browseDump(cls);
-
-         // if recurse, then add classes to list that are referred to by inheritance and composition
-         if (recurse) recurseClasses(cls, classList);
+         // read in the files (and add new ones along the way for recurse option
+         run.readClasses();
+      } finally {
+         run.close();
       }
    }
 
    /*-----------------------------------------------------------------------
-    - Method:        recurseClasses                                        -
+    - Method:        processClass                                          -
     -                                                                      -
-    - Desc:          trundle through browse strings to find class ref's    -
+    - Desc:          output the class that has been read in                -
     -----------------------------------------------------------------------*/
-   static void recurseClasses(ClassFile cls, java.util.Vector classList) {
-      // bring in super class
-      String newClass = cls.browseSuper();
-      if (!newClass.equals("")) addClassFile(newClass + ".class", classList);
-
-      // bring in interface classes
-      String[] newClassArray = cls.browseInterfaces();
-      for (int j = 0; j < newClassArray.length; j++) {
-         newClass = newClassArray[j];
-         addClassFile(newClass + ".class", classList);
-      }
+   static void processClass(ClassFile cls, boolean jasmin, boolean browse, boolean recurse,
+         Class_List classList) {
+      // nothing to output if the class could not be read (the error has been reported)
+      if (!cls.isLoaded()) return;
 
-      // bring in field types
-      newClassArray = cls.browseFields();
-      for (int j = 0; j < newClassArray.length; j++) {
-         // kill the field access permission attributes
-         newClass = stripAccess(newClassArray[j]);
+      // output the assembly files
+      if (jasmin) cls.jasmin();
 
-         // reduce the string to the field type
-         if (newClass.indexOf(' ') > 0) newClass = newClass.substring(0, newClass.indexOf(' '));
-
-         // strip off any array indexes on the field type
-         if (newClass.indexOf('[') > 0) newClass = newClass.substring(0, newClass.indexOf('['));
-
-         // add the class to the list of classes to read
-         addClassFile(newClass + ".class", classList);
-      }
+      // echo the browse output
+      if (browse) browseDump(cls);
 
-      // bring in method types
-      newClassArray = cls.browseMethods();
-      for (int j = 0; j < newClassArray.length; j++) {
-         // kill the field access permission attributes
-         newClass = stripAccess(newClassArray[j]);
-
-         // reduce the string to the field type
-         if (newClass.indexOf(' ') > 0) newClass = newClass.substring(0, newClass.indexOf(' '));
-
-         // strip off any array indexes on the field type
-         if (newClass.indexOf('[') > 0) newClass = newClass.substring(0, newClass.indexOf('['));
-
-         // add the class to the list of classes to read
-         addClassFile(newClass + ".class", classList);
-
-         // bring in method parameters
-         String params = newClassArray[j];
-         params = params.substring(params.indexOf('(')+1);
-         params = params.substring(0, params.indexOf(')')+1);
-         while (params.length() > 1) {
-            int n = params.indexOf(',');
-            if (n > 0) {
-               newClass = params.substring(0, n);
-               params = params.substring(n + 2);
-            } else {
-               newClass = params.substring(0, params.indexOf(')'));
-               params = "";
-            }
-            if (newClass.indexOf('[') > 0) newClass = newClass.substring(0, newClass.indexOf('['));
-            addClassFile(newClass + ".class", classList);
-         }
-      }
-
-      // bring in the fields referenced by class methods
-      String[][] newClassRef = cls.browseFieldrefs();
-      for (int j = 0; j < newClassRef.length; j++) {
-         for (int k = 0; k < newClassRef[j].length; k++) {
-            // kill the field access permission attributes
-            newClass = stripAccess(newClassRef[j][k]);
-
-            // reduce the string to the field type
-            if (newClass.indexOf(' ') > 0) newClass = newClass.substring(0, newClass.indexOf(' '));
-
-            // strip off any array indexes on the field type
-            if (newClass.indexOf('[') > 0) newClass = newClass.substring(0, newClass.indexOf('['));
-
-            // add the class to the list of classes to read
-            addClassFile(newClass + ".class", classList);
-
-            // get the class name of the field being referred to
-            newClass = stripAccess(newClassRef[j][k]);
-            if (newClass.lastIndexOf(' ') > 0) newClass = newClass.substring(newClass.lastIndexOf(' ') + 1);
-
-            // strip off the field name
-            if (newClass.lastIndexOf('.') > 0) newClass = newClass.substring(0, newClass.lastIndexOf('.'));
-
-            // add the class to the list of classes to read
-            addClassFile(newClass + ".class", classList);
-         }
-      }
-
-      // bring in the methods referenced by class methods
-      newClassRef = cls.browseMethodrefs();
-      for (int j = 0; j < newClassRef.length; j++) {
-         for (int k = 0; k < newClassRef[j].length; k++) {
-            // kill the field access permission attributes
-            newClass = stripAccess(newClassRef[j][k]);
-
-            // reduce the string to the method return type
-            if (newClass.indexOf(' ') > 0) newClass = newClass.substring(0, newClass.indexOf(' '));
-
-            // strip off any array indexes on the return type
-            if (newClass.indexOf('[') > 0) newClass = newClass.substring(0, newClass.indexOf('['));
-
-            if (!newClass.equals("new")) {
-               // add the class to the list of classes to read
-               addClassFile(newClass + ".class", classList);
-
-               // get the class name of the method being referred to
-               newClass = stripAccess(newClassRef[j][k]);
-               if (newClass.indexOf('(') > 0) newClass = newClass.substring(0, newClass.indexOf('('));
-               if (newClass.lastIndexOf(' ') > 0) newClass = newClass.substring(newClass.lastIndexOf(' ') + 1);
-
-               // strip off the method name
-               if (newClass.lastIndexOf('.') > 0) newClass = newClass.substring(0, newClass.lastIndexOf('.'));
-
-               // add the class to the list of classes to read
-               addClassFile(newClass + ".class", classList);
-            }
-
-            // bring in method parameters
-            String params = newClassRef[j][k];
-            params = params.substring(params.indexOf('(')+1);
-            params = params.substring(0, params.indexOf(')')+1);
-            while (params.length() > 1) {
-               int n = params.indexOf(',');
-               if (n > 0) {
-                  newClass = params.substring(0, n);
-                  params = params.substring(n + 2);
-               } else {
-                  newClass = params.substring(0, params.indexOf(')'));
-                  params = "";
-               }
-               if (newClass.indexOf('[') > 0) newClass = newClass.substring(0, newClass.indexOf('['));
-               addClassFile(newClass + ".class", classList);
-            }
-         }
-      }
-
-      // bring in the interface methods referenced by class methods
-      newClassRef = cls.browseMethodrefs();
-      for (int j = 0; j < newClassRef.length; j++) {
-         for (int k = 0; k < newClassRef[j].length; k++) {
-            // kill the field access permission attributes
-            newClass = stripAccess(newClassRef[j][k]);
-
-            // reduce the string to the method return type
-            if (newClass.indexOf(' ') > 0) newClass = newClass.substring(0, newClass.indexOf(' '));
-
-            // strip off any array indexes on the return type
-            if (newClass.indexOf('[') > 0) newClass = newClass.substring(0, newClass.indexOf('['));
-
-            if (!newClass.equals("new")) {
-               // add the class to the list of classes to read
-               addClassFile(newClass + ".class", classList);
-
-               // get the class name of the method being referred to
-               newClass = stripAccess(newClassRef[j][k]);
-               if (newClass.indexOf('(') > 0) newClass = newClass.substring(0, newClass.indexOf('('));
-               if (newClass.lastIndexOf(' ') > 0) newClass = newClass.substring(newClass.lastIndexOf(' ') + 1);
-
-               // strip off the method name
-               if (newClass.lastIndexOf('.') > 0) newClass = newClass.substring(0, newClass.lastIndexOf('.'));
-
-               // add the class to the list of classes to read
-               addClassFile(newClass + ".class", classList);
-            }
-
-            // bring in method parameters
-            String params = newClassRef[j][k];
-            params = params.substring(params.indexOf('(')+1);
-            params = params.substring(0, params.indexOf(')')+1);
-            while (params.length() > 1) {
-               int n = params.indexOf(',');
-               if (n > 0) {
-                  newClass = params.substring(0, n);
-                  params = params.substring(n + 2);
-               } else {
-                  newClass = params.substring(0, params.indexOf(')'));
-                  params = "";
-               }
-               if (newClass.indexOf('[') > 0) newClass = newClass.substring(0, newClass.indexOf('['));
-               addClassFile(newClass + ".class", classList);
-            }
-         }
-      }
+      // if recurse, then add classes to list that are referred to by inheritance and composition
+      if (recurse) recurseClasses(cls, classList);
    }
 
    /*-----------------------------------------------------------------------
-    - Method:        addClassFile                                          -
+    - Method:        isArchive                                             -
     -                                                                      -
-    - Desc:          if class not in process list, then add it             -
+    - Desc:          test if the file argument is a jar or a directory     -
     -----------------------------------------------------------------------*/
-   static void addClassFile(String name, java.util.Vector classList) {
-      // normalize the file name
-      String fileName = ClassFile.parseFileDir(name) + ClassFile.parseFileName(name) +
-         "." + ClassFile.parseFileExt(name);
-
-      // don't add the primitive types since there is no class file associated with them
-      if (fileName.equals(".class")) return;
-      if (fileName.equals("byte.class")) return;
-      if (fileName.equals("short.class")) return;
-      if (fileName.equals("int.class")) return;
-      if (fileName.equals("long.class")) return;
-      if (fileName.equals("boolean.class")) return;
-      if (fileName.equals("float.class")) return;
-      if (fileName.equals("double.class")) return;
-      if (fileName.equals("char.class")) return;
-      if (fileName.equals("void.class")) return;
-
-      // check if file has already been read in
-      for (int i = 0; i < classList.size(); i++) {
-         if (((String)classList.elementAt(i)).equals(fileName)) return;
-      }
-
-      // add class to the list of those read
-      classList.add(fileName);
+   static boolean isArchive(String name) {
+      File f = new File(name);
+      if (f.isDirectory()) return true;
+      String s = name.toLowerCase();
+      return f.isFile() && (s.endsWith(".jar") || s.endsWith(".zip"));
    }
 
    /*-----------------------------------------------------------------------
-    - Method:        stripAccess                                           -
+    - Method:        recurseClasses                                        -
     -                                                                      -
-    - Desc:          strip access permission from fields and methods       -
-    -                   element[i][0] = permission string to match         -
-    -                   element[i][1] = field/method as synthetic          -
+    - Desc:          add the classes the class refers to (as read from     -
+    -                its constant pool and member descriptors)             -
     -----------------------------------------------------------------------*/
-   static String stripAccess(String newClass) {
-      // loop until all the known access flags are stripped
-      boolean flag = true;
-      while (flag) {
-         flag = false;
-         for (int i = 0; i < accessStrings.length; i++) {
-            String s = accessStrings[i][0];
-            if (newClass.substring(0, s.length()).equals(s)) {
-               // strip the attribute away from the string
-               newClass = newClass.substring(s.length());
-               flag = true;
-
-               // check if this is a synthetic field/method
-               boolean synthetic = accessStrings[i][1].equals("1");
-               if (synthetic) return "";
-            }
-         }
-      }
-      return newClass;
+   static void recurseClasses(ClassFile cls, Class_List classList) {
+      String[] refs = cls.classReferences();
+      for (int i = 0; i < refs.length; i++) classList.add(refs[i] + ".class");
    }
 
    /*-----------------------------------------------------------------------
-    - Method:        accessStrings                                         -
+    - Method:        normalize                                             -
     -                                                                      -
-    - Desc:          array of access permission strings used for strip     -
-    -                   element[i][0] = permission string to match         -
-    -                   element[i][1] = synthetic field/method) ("1"=true) -
+    - Desc:          normalize the class file name                         -
     -----------------------------------------------------------------------*/
-   static String[][] accessStrings = {
-      {"public ",       "0"},
-      {"private ",      "0"},
-      {"protected ",    "0"},
-      {"static ",       "0"},
-      {"final ",        "0"},
-      {"synchronized ", "0"},
-      {"volatile ",     "0"},
-      {"transient ",    "0"},
-      {"native ",       "0"},
-      {"abstract ",     "0"},
-      {"#deprecated# ", "0"},
-      {"#synthetic# ",  "1"},
-   };
+   static String normalize(String name) {
+      return ClassFile.parseFileDir(name) + ClassFile.parseFileName(name) + "." + ClassFile.parseFileExt(name);
+   }
 
    /*-----------------------------------------------------------------------
     - Method:        browseDump                                            -
@@ -412,6 +205,7 @@ public class Jasper {
       System.out.println("Jasper Version " + version +
          "  Copyright (c) Chris Rathman 1999. All rights reserved.");
       System.out.println("Syntax:  java [java-options] jasper/Jasper [jasper-options] files.class");
+      System.out.println("         java [java-options] jasper/Jasper [jasper-options] file.jar|directory");
       System.out.println("");
    }
 
@@ -426,6 +220,9 @@ public class Jasper {
       System.out.println("   -jasmin    Enable jasmin file output (default)");
       System.out.println("   -browse    Enable output to the browse files");
       System.out.println("   -recurse   Recurse through the inheritance and composition for the class");
+      System.out.println("   -dump      Hex dump the attributes Jasper does not handle");
+      System.out.println("   -parallel  Process classes on all available processors");
+      System.out.println("   -threads n Process classes on n threads");
       System.out.println("   -help      View Jasper help");
       System.out.println("   -version   View Jasper version number");
       System.out.println("   --version  View Jasper license");
@@ -469,3 +266,411 @@ public class Jasper {
       System.out.println("");
    }
 }
+
+/*=======================================================================
+ = Class:         Jasper_Run                                            =
+ =                                                                      =
+ = Desc:          one run of the program over the classes asked for.    =
+ =                with more than one thread the classes are processed   =
+ =                by a pool of workers, but each class's output is      =
+ =                written, and each class's recurse references are      =
+ =                added to the class list, in the same order as a       =
+ =                single threaded run                                   =
+ =======================================================================*/
+class Jasper_Run {
+   private boolean jasmin;                                  // output jasmin assembly files
+   private boolean browse;                                  // echo the browse output
+   private boolean recurse;                                 // add classes referred to by each class
+   private Class_List classList;                            // classes read in (or to be read in)
+   private Class_Options options;                           // dump flag, method workers and symbols
+                                                            //    shared by the classes of the run
+   private java.util.HashSet<String> archived =
+      new java.util.HashSet<String>();                      // classes read from jars and directories
+   private java.util.concurrent.ExecutorService workers;    // worker threads (null if single threaded)
+   private java.util.ArrayDeque<java.util.concurrent.Future<Jasper_Task>> pending =
+      new java.util.ArrayDeque<java.util.concurrent.Future<Jasper_Task>>();   // tasks in class order
+   private java.util.concurrent.ConcurrentHashMap<String, java.util.concurrent.Future<Jasper_Task>> prefetched =
+      new java.util.concurrent.ConcurrentHashMap<String, java.util.concurrent.Future<Jasper_Task>>();
+                                                            // classes started ahead of their turn
+   private java.util.concurrent.atomic.AtomicInteger ahead =
+      new java.util.concurrent.atomic.AtomicInteger();      // number of prefetched classes
+   private int window;                                      // most tasks allowed to be pending
+   private Console console;                                 // console that task output is captured by
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          set up the run (and the workers if more than one)     -
+    -----------------------------------------------------------------------*/
+   Jasper_Run(boolean jasmin, boolean browse, boolean recurse, boolean dump, int threads, Class_List classList) {
+      this.jasmin = jasmin;
+      this.browse = browse;
+      this.recurse = recurse;
+      this.classList = classList;
+      options = new Class_Options(dump, threads);
+      if (threads > 1) {
+         console = Console.install();
+         window = threads * 8;
+         workers = java.util.concurrent.Executors.newFixedThreadPool(threads,
+            new java.util.concurrent.ThreadFactory() {
+               public Thread newThread(Runnable r) {
+                  Thread t = new Thread(r, "jasper-worker");
+                  t.setDaemon(true);
+                  return t;
+               }
+            });
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readArchive                                           -
+    -                                                                      -
+    - Desc:          read every class in the jar or directory              -
+    -----------------------------------------------------------------------*/
+   void readArchive(String archive) {
+      try {
+         if (new File(archive).isDirectory()) {
+            readDirectory(new File(archive), "");
+         } else {
+            readJar(archive);
+         }
+         finish();
+      } catch (IOException e) {
+         // report the error
+         finish();
+         System.out.println(e);
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readJar                                               -
+    -                                                                      -
+    - Desc:          read every class in the jar in one sequential pass    -
+    -                (each entry is inflated exactly once)                 -
+    -----------------------------------------------------------------------*/
+   private void readJar(String jarName) throws IOException {
+      ZipInputStream zip = new ZipInputStream(new BufferedInputStream(new FileInputStream(jarName), 65536));
+      try {
+         for (ZipEntry zin = zip.getNextEntry(); zin != null; zin = zip.getNextEntry()) {
+            if (zin.isDirectory() || !zin.getName().endsWith(".class")) continue;
+            submit(new Jasper_Task(Jasper.normalize(zin.getName()), ClassFile.readBytes(zip), options));
+         }
+      } finally {
+         zip.close();
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readDirectory                                         -
+    -                                                                      -
+    - Desc:          read every class under the directory (prefix is the   -
+    -                path of the directory from the top of the tree)       -
+    -----------------------------------------------------------------------*/
+   private void readDirectory(File dir, String prefix) throws IOException {
+      File[] files = dir.listFiles();
+      if (files == null) return;
+      java.util.Arrays.sort(files);
+      for (int i = 0; i < files.length; i++) {
+         String name = prefix + files[i].getName();
+         if (files[i].isDirectory()) {
+            readDirectory(files[i], name + "/");
+         } else if (name.endsWith(".class")) {
+            InputStream ios = new FileInputStream(files[i]);
+            try {
+               submit(new Jasper_Task(Jasper.normalize(name), ClassFile.readBytes(ios), options));
+            } finally {
+               ios.close();
+            }
+         }
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        readClasses                                           -
+    -                                                                      -
+    - Desc:          read the classes in the class list (the list grows as -
+    -                classes are read if recurse is on)                    -
+    -----------------------------------------------------------------------*/
+   void readClasses() {
+      int i = 0;
+      while (true) {
+         // queue up the classes known so far
+         while ((i < classList.size()) && ((workers == null) || (pending.size() < window))) {
+            String fileName = classList.elementAt(i++);
+
+            // take the class back if a worker has already started on it
+            java.util.concurrent.Future<Jasper_Task> future = (workers != null) ? prefetched.remove(fileName) : null;
+            if (future != null) ahead.decrementAndGet();
+
+            // skip classes already read from a jar or directory (a worker that started
+            // on one early is called off - its output is never written)
+            if (archived.contains(fileName)) {
+               if (future != null) future.cancel(false);
+               continue;
+            }
+
+            if (future != null) {
+               pending.addLast(future);
+            } else {
+               submit(new Jasper_Task(fileName, options));
+            }
+         }
+
+         // wait for the oldest class - it may add more classes to the list
+         if (pending.isEmpty()) break;
+         complete(pending.removeFirst());
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        submit                                                -
+    -                                                                      -
+    - Desc:          process the class (on a worker if multi threaded)     -
+    -----------------------------------------------------------------------*/
+   private void submit(Jasper_Task task) {
+      if (workers == null) {
+         // single threaded - process the class right away
+         if (task.archived != null) noteArchived(task.archived);
+         task.process(jasmin, browse, recurse ? classList : null);
+         return;
+      }
+      pending.addLast(workers.submit(task.capture(this, console, jasmin, browse, recurse)));
+      while (pending.size() >= window) complete(pending.removeFirst());
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        complete                                              -
+    -                                                                      -
+    - Desc:          wait for a worker task, then write its output and add -
+    -                the classes it refers to                              -
+    -----------------------------------------------------------------------*/
+   private void complete(java.util.concurrent.Future<Jasper_Task> future) {
+      Jasper_Task task;
+      try {
+         task = future.get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new RuntimeException(e);
+      } catch (java.util.concurrent.ExecutionException e) {
+         throw new RuntimeException(e.getCause());
+      }
+      if (task.archived != null) noteArchived(task.archived);
+      if (task.head != null) console.emit(task.head);
+      if (task.jasminFile != null) writeJasmin(task);
+      console.emit(task.output);
+      if (task.failure instanceof RuntimeException) throw (RuntimeException)task.failure;
+      if (task.failure instanceof Error) throw (Error)task.failure;
+      if (task.refs != null) {
+         for (int i = 0; i < task.refs.size(); i++) classList.add(task.refs.elementAt(i));
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        writeJasmin                                           -
+    -                                                                      -
+    - Desc:          write out the jasmin file a worker task assembled     -
+    -----------------------------------------------------------------------*/
+   private void writeJasmin(Jasper_Task task) {
+      try {
+         ClassFile.makeDirectory(task.jasminFile);
+         OutputStream out = new FileOutputStream(task.jasminFile);
+         try {
+            out.write(task.jasmin);
+         } finally {
+            out.close();
+         }
+         task.jasmin = null;
+
+         // echo that the jasmine file has been completed
+         if (task.generated) System.out.println("Generated: " + task.jasminFile);
+
+      } catch (IOException e) {
+         // report the error
+         System.out.println(e);
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        noteArchived                                          -
+    -                                                                      -
+    - Desc:          note a class from a jar or directory so that recurse  -
+    -                does not read it in again                             -
+    -----------------------------------------------------------------------*/
+   private void noteArchived(String fileName) {
+      classList.add(fileName);
+      archived.add(fileName);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        prefetch                                              -
+    -                                                                      -
+    - Desc:          called by a worker with the classes a class refers    -
+    -                to.  those not yet in the class list are started on   -
+    -                right away (up to the size of the window), and picked -
+    -                up when the class list gets to them                   -
+    -----------------------------------------------------------------------*/
+   void prefetch(Class_List refs) {
+      for (int i = 0; i < refs.size(); i++) {
+         String fileName = refs.elementAt(i);
+         if (classList.contains(fileName) || prefetched.containsKey(fileName)) continue;
+         if (ahead.incrementAndGet() > window) {
+            ahead.decrementAndGet();
+            return;
+         }
+         java.util.concurrent.FutureTask<Jasper_Task> future = new java.util.concurrent.FutureTask<Jasper_Task>(
+            new Jasper_Task(fileName, options).capture(this, console, jasmin, browse, recurse));
+         if (prefetched.putIfAbsent(fileName, future) != null) {
+            ahead.decrementAndGet();
+            continue;
+         }
+
+         // the class list may have taken the class in the meantime - if so, back out
+         if (classList.contains(fileName) && prefetched.remove(fileName, future)) {
+            ahead.decrementAndGet();
+            continue;
+         }
+         workers.execute(future);
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        finish                                                -
+    -                                                                      -
+    - Desc:          wait for all the pending classes                      -
+    -----------------------------------------------------------------------*/
+   private void finish() {
+      while (!pending.isEmpty()) complete(pending.removeFirst());
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        close                                                 -
+    -                                                                      -
+    - Desc:          stop the workers                                      -
+    -----------------------------------------------------------------------*/
+   void close() {
+      if (workers != null) workers.shutdownNow();
+      options.close();
+   }
+}
+
+/*=======================================================================
+ = Class:         Jasper_Task                                           =
+ =                                                                      =
+ = Desc:          reading and output of a single class                  =
+ =======================================================================*/
+class Jasper_Task implements java.util.concurrent.Callable<Jasper_Task> {
+   String fileName;                    // class file to read (null if the bytes are given)
+   String archived;                    // name of the class in its jar or directory (null if not)
+   byte[] bytes;                       // class file bytes (from a jar or directory)
+   Class_List refs;                    // classes referred to (when recursing on a worker)
+   String jasminFile;                  // jasmin file to write (when run on a worker)
+   byte[] jasmin;                      // jasmin assembly for the file
+   boolean generated;                  // true if the assembly was completed
+   byte[] head;                        // console output before the jasmin file was written
+   byte[] output;                      // console output (when run on a worker)
+   Throwable failure;                  // what went wrong (when run on a worker)
+   private Class_Options options;      // options of the run that the class is read with
+   private Jasper_Run run;             // run that the task belongs to
+   private Console console;            // console that the output is captured by
+   private boolean doJasmin;           // output the jasmin assembly file
+   private boolean browse;             // echo the browse output
+   private boolean recurse;            // collect the classes referred to
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          task to read the named class file                     -
+    -----------------------------------------------------------------------*/
+   Jasper_Task(String fileName, Class_Options options) {
+      this.fileName = fileName;
+      this.options = options;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          task for a class read from a jar or directory         -
+    -----------------------------------------------------------------------*/
+   Jasper_Task(String archived, byte[] bytes, Class_Options options) {
+      this.archived = archived;
+      this.bytes = bytes;
+      this.options = options;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        process                                               -
+    -                                                                      -
+    - Desc:          read the class and output it                          -
+    -----------------------------------------------------------------------*/
+   void process(boolean jasmin, boolean browse, Class_List classList) {
+      Jasper.processClass(read(), jasmin, browse, classList != null, classList);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        read                                                  -
+    -                                                                      -
+    - Desc:          read in the class                                     -
+    -----------------------------------------------------------------------*/
+   private ClassFile read() {
+      if (bytes == null) return new ClassFile(fileName, options);
+      System.out.println("Reading:   " + archived);
+      ClassFile retVal = new ClassFile(bytes, options);
+      bytes = null;
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        capture                                               -
+    -                                                                      -
+    - Desc:          set the task up to run on a worker thread             -
+    -----------------------------------------------------------------------*/
+   Jasper_Task capture(Jasper_Run run, Console console, boolean jasmin, boolean browse, boolean recurse) {
+      this.run = run;
+      this.console = console;
+      this.doJasmin = jasmin;
+      this.browse = browse;
+      this.recurse = recurse;
+      return this;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        call                                                  -
+    -                                                                      -
+    - Desc:          run on a worker thread - output is captured and any   -
+    -                failure is held until the task's turn to be written.  -
+    -                the jasmin file is written by the main thread, so     -
+    -                that classes with the same name overwrite each other  -
+    -                in a fixed order                                      -
+    -----------------------------------------------------------------------*/
+   public Jasper_Task call() {
+      console.begin();
+      try {
+         if (recurse) refs = new Class_List();
+         ClassFile cls = read();
+         if (doJasmin && cls.isLoaded()) {
+            jasminFile = cls.jasminFileName();
+            ByteArrayOutputStream b = new ByteArrayOutputStream(16384);
+            try {
+               cls.jasmin(b);
+               generated = true;
+            } catch (IOException e) {
+               // report the error
+               System.out.println(e);
+            } finally {
+               jasmin = b.toByteArray();
+               head = console.end();
+               console.begin();
+            }
+         }
+         Jasper.processClass(cls, false, browse, recurse, refs);
+
+         // start on the classes referred to that nobody has seen yet
+         if (refs != null) run.prefetch(refs);
+      } catch (Throwable e) {
+         failure = e;
+      } finally {
+         output = console.end();
+      }
+      return this;
+   }
+}
@@ -16,27 +16,150 @@ class Method_Collection {
    private int count;                  // number of methods declared
    private Method[] methods;           // methods declared by the class
 
+   private java.util.concurrent.ForkJoinPool workers;          // threads for the methods of large classes
+                                                               //    (null = one method at a time)
+   private static final int PARALLEL = 64;                     // methods needed before workers are used
+
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
-    - Desc:          read in the method definitions from input stream      -
+    - Desc:          read in the method definitions from input stream.     -
+    -                the code of each method is only located here - it is  -
+    -                read in by decode once the whole class is scanned     -
     -----------------------------------------------------------------------*/
-   Method_Collection(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Method_Collection(ClassBuffer ios, Pool_Collection pool) throws IOException {
+      // the workers of the run (if any)
+      workers = pool.getOptions().workers;
+
       // get the number of methods
-      count  = ios.readShort();
+      count  = ios.readUnsignedShort();
 
       // read in the methods
       methods = new Method[count];
       for (int i = 0; i < count; i++) methods[i] = new Method(ios, pool);
    }
 
+   /*-----------------------------------------------------------------------
+    - Method:        decode                                                -
+    -                                                                      -
+    - Desc:          read in the code of the methods.  if a method's code  -
+    -                is bad, ios is moved back to the start of the method  -
+    -                so that the class file dump begins where it failed    -
+    -----------------------------------------------------------------------*/
+   void decode(ClassBuffer ios) throws IOException {
+      // the first method that failed - the one whose error forEach passes on
+      java.util.concurrent.atomic.AtomicInteger failed = new java.util.concurrent.atomic.AtomicInteger(count);
+      try {
+         forEach(i -> {
+            try {
+               methods[i].decode();
+            } catch (IOException | RuntimeException e) {
+               failed.accumulateAndGet(i, Math::min);
+               throw e;
+            }
+         });
+      } catch (IOException e) {
+         ios.pos = methods[failed.get()].getOffset();
+         throw e;
+      }
+   }
+
    /*-----------------------------------------------------------------------
     - Method:        jasmin                                                -
     -                                                                      -
-    - Desc:          output the methods to the jasmin file                 -
+    - Desc:          output the methods to the jasmin file - each method   -
+    -                is written to its own buffer when they are done in    -
+    -                parallel, and the buffers copied out in order         -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
-      for (int i = 0; i < count; i++) methods[i].jasmin(out);
+   void jasmin(Jasmin_Writer out) throws IOException {
+      if (!isParallel()) {
+         for (int i = 0; i < count; i++) methods[i].jasmin(out);
+         return;
+      }
+      String[] text = new String[count];
+      forEach(i -> {
+         CharArrayWriter buffer = new CharArrayWriter(4096);
+         Jasmin_Writer writer = new Jasmin_Writer(buffer);
+         methods[i].jasmin(writer);
+         writer.flush();
+         text[i] = buffer.toString();
+      });
+      for (int i = 0; i < count; i++) out.print(text[i]);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        jasmin                                                -
+    -                                                                      -
+    - Desc:          output the method at the cursor - only the one        -
+    -                method is decoded, and it is dropped once written     -
+    -----------------------------------------------------------------------*/
+   static void jasmin(Jasmin_Writer out, ClassBuffer ios, Pool_Collection pool) throws IOException {
+      Method method = new Method(ios, pool);
+      method.decode();
+      method.jasmin(out);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        isParallel                                            -
+    -                                                                      -
+    - Desc:          test if the methods are worth handing to the workers  -
+    -----------------------------------------------------------------------*/
+   private boolean isParallel() {
+      return (workers != null) && (count >= PARALLEL);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        forEach                                               -
+    -                                                                      -
+    - Desc:          run the step for every method.  for a large class the -
+    -                methods are split into runs that the workers take in  -
+    -                parallel - console output of each run is captured and -
+    -                printed in method order (a Console is put in place of -
+    -                System.out if there is none), and the first error     -
+    -                thrown is passed on, as if the methods were done one  -
+    -                by one                                                -
+    -----------------------------------------------------------------------*/
+   private void forEach(Method_Step step) throws IOException {
+      if (!isParallel()) {
+         for (int i = 0; i < count; i++) step.run(i);
+         return;
+      }
+
+      Console console = Console.install();
+      int runs = Math.min(count, workers.getParallelism() * 4);
+      byte[][] output = new byte[runs][];
+      Throwable[] error = new Throwable[runs];
+      java.util.concurrent.ForkJoinTask<?>[] tasks = new java.util.concurrent.ForkJoinTask<?>[runs];
+      for (int r = 0; r < runs; r++) {
+         int run = r;
+         tasks[r] = workers.submit(() -> {
+            console.begin();
+            try {
+               for (int i = count * run / runs; i < count * (run + 1) / runs; i++) step.run(i);
+            } catch (Throwable e) {
+               error[run] = e;
+            }
+            output[run] = console.end();
+         });
+      }
+      for (int r = 0; r < runs; r++) tasks[r].join();
+
+      for (int r = 0; r < runs; r++) {
+         System.out.write(output[r], 0, output[r].length);
+         if (error[r] instanceof IOException) throw (IOException)error[r];
+         if (error[r] instanceof RuntimeException) throw (RuntimeException)error[r];
+         if (error[r] instanceof Error) throw (Error)error[r];
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        codeCursor                                            -
+    -                                                                      -
+    - Desc:          point the cursor at the code of the method at index   -
+    -----------------------------------------------------------------------*/
+   boolean codeCursor(int method, Code_Cursor cursor) {
+      if ((method < 0) || (method >= count)) return false;
+      return methods[method].codeCursor(cursor);
    }
 
    /*-----------------------------------------------------------------------
@@ -82,6 +205,15 @@ class Method_Collection {
       for (int i = 0; i < count; i++) retVal[i] = methods[i].browseInterfaceMethodrefs();
       return retVal;
    }
+
+   /*-----------------------------------------------------------------------
+    - Method:        classReferences                                       -
+    -                                                                      -
+    - Desc:          add the classes named by the method types to the set  -
+    -----------------------------------------------------------------------*/
+   void classReferences(java.util.Set<String> refs) {
+      for (int i = 0; i < count; i++) methods[i].classReferences(refs);
+   }
 }
 
 /*=======================================================================
@@ -94,6 +226,7 @@ class Method {
    private int accessFlags;                  // method access flags
    private int nameIndex;                    // method name (index into constant pool table)
    private int descriptorIndex;              // return type (index into constant pool table)
+   private int offset;                       // position of the method in the class file buffer
    private Attribute_Collection attributes;  // method attributes: (Code, Exceptions, Synthetic, Deprecated)
 
    /*-----------------------------------------------------------------------
@@ -101,23 +234,42 @@ class Method {
     -                                                                      -
     - Desc:          read in the method definition from input stream       -
     -----------------------------------------------------------------------*/
-   Method(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Method(ClassBuffer ios, Pool_Collection pool) throws IOException {
       // save off the pool object for later reference
       this.pool = pool;
+      offset = ios.pos;
 
       // get the method access flags
       accessFlags = ios.readShort();
 
       // get the index for the method name
-      nameIndex = ios.readShort();
+      nameIndex = ios.readUnsignedShort();
 
       // get the index for the method return type descriptor
-      descriptorIndex = ios.readShort();
+      descriptorIndex = ios.readUnsignedShort();
 
       // read in the method attributes
       attributes = new Attribute_Collection(ios, pool);
    }
 
+   /*-----------------------------------------------------------------------
+    - Method:        decode                                                -
+    -                                                                      -
+    - Desc:          read in the code of the method                        -
+    -----------------------------------------------------------------------*/
+   void decode() throws IOException {
+      attributes.decode();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getOffset                                             -
+    -                                                                      -
+    - Desc:          position of the method in the class file buffer       -
+    -----------------------------------------------------------------------*/
+   int getOffset() {
+      return offset;
+   }
+
    /*-----------------------------------------------------------------------
     - Method:        accessString                                          -
     -                                                                      -
@@ -141,17 +293,27 @@ class Method {
     -                                                                      -
     - Desc:          output the method to the jasmin file                  -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
+   void jasmin(Jasmin_Writer out) throws IOException {
       // output the .method directive
-      out.println(ClassFile.pad(".method", ClassFile.SPACER) + accessString() +
-         pool.toString(nameIndex) + pool.toString(descriptorIndex));
+      out.print(".method").pad(ClassFile.SPACER).print(accessString());
+      out.print(pool.toString(nameIndex)).println(pool.toString(descriptorIndex));
 
       // output the code,
       attributes.jasmin(out);
 
       // close out the .method directive
-      out.println(ClassFile.pad(".end method", ClassFile.SPACER));
-      out.println("");
+      out.print(".end method").pad(ClassFile.SPACER).println();
+      out.println();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        codeCursor                                            -
+    -                                                                      -
+    - Desc:          point the cursor at the code of the method (false if  -
+    -                abstract or native)                                   -
+    -----------------------------------------------------------------------*/
+   boolean codeCursor(Code_Cursor cursor) {
+      return attributes.codeCursor(cursor);
    }
 
    /*-----------------------------------------------------------------------
@@ -204,4 +366,23 @@ class Method {
    String[] browseInterfaceMethodrefs() {
       return attributes.browseInterfaceMethodrefs();
    }
+
+   /*-----------------------------------------------------------------------
+    - Method:        classReferences                                       -
+    -                                                                      -
+    - Desc:          add the classes named by the return and parameter     -
+    -                types to the set                                      -
+    -----------------------------------------------------------------------*/
+   void classReferences(java.util.Set<String> refs) {
+      pool.descriptorReferences(descriptorIndex, refs);
+   }
+}
+
+/*=======================================================================
+ = Interface:     Method_Step                                           =
+ =                                                                      =
+ = Desc:          work done on the method at an index                   =
+ =======================================================================*/
+interface Method_Step {
+   void run(int i) throws IOException;
 }
@@ -6,7 +6,7 @@
  */
 package jasper;
 import java.io.*;
-import java.lang.reflect.*;
+import java.nio.charset.StandardCharsets;
 
 /*=======================================================================
  = Class:         Pool_Collection                                       =
@@ -14,57 +14,145 @@ import java.lang.reflect.*;
  = Desc:          Constant Table Pool                                   =
  =======================================================================*/
 class Pool_Collection {
-   private short count;                // number of entries in the constant pool table (no zero entry)
-   private int[] poolType;             // type of pool constant
-   private Pool[] pool;                // constant pool table
+   private int count;                  // number of entries in the constant pool table (no zero entry)
+   private byte[] poolType;            // type of pool constant
+   private int[] offset;               // offset of each constant's bytes (just past the tag) in the class buffer
+   private ClassBuffer source;         // class file bytes that the constants are decoded from
+   private Pool[] pool;                // constant pool table (entries are decoded when first used)
+   private Attribute_Factory[] attributeFactory;  // attribute handlers resolved by name index
+   private Descriptor[] descriptor;    // parsed type descriptors (by index of the descriptor string)
+   private final Class_Options options; // options of the run that the class is read with
+   private final Symbol_Table symbols; // table the strings are interned in (shared by the run)
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
-    - Desc:          read constants from the input stream                  -
+    - Desc:          scan constants from the input stream - only the type  -
+    -                and position of each constant is recorded here        -
     -----------------------------------------------------------------------*/
-   Pool_Collection(DataInputStream ios) throws IOException {
+   Pool_Collection(ClassBuffer ios, Class_Options options) throws IOException {
+      this.options = options;
+      symbols = options.symbols;
+
       // read in the number of entries in the table
-      count = ios.readShort();
+      count = ios.readUnsignedShort();
 
       // allocate the arrays to hold the pool constants
-      poolType = new int[count];
+      poolType = new byte[count];
+      offset = new int[count];
       pool = new Pool[count];
+      source = ios;
 
-      // read in the pool constants from the input stream
+      // walk over the pool constants in the input stream
       for (int i = 1; i < count; i++) {
+         // byte offset of the constant (reported if the constant is malformed)
+         int start = ios.offset();
+
          // get the type of constant
-         poolType[i] = ios.read();
+         int tag = ios.read();
+         offset[i] = ios.pos;
 
          try {
-            Constructor myConstructor;
-
-            // get subclass that handles the constant
-            Class newClass = (Class)dispatch[poolType[i]][2];
-            try {
-               // for some reason this technique is not working in JDK1.2?
-               myConstructor = newClass.getConstructor(new Class[] {ios.getClass(), Pool_Collection.class});
-            } catch (NoSuchMethodException e) {
-               // since there is only one constructor, we can use this technique if above fails
-               myConstructor = newClass.getDeclaredConstructors()[0];
+            // skip over the constant
+            switch (tag) {
+               case  1: ios.skipBytes(ios.readUnsignedShort());     break;  // Utf8
+               case  2: ios.skipBytes(2 * ios.readUnsignedShort()); break;  // Unicode
+               case  3:                                                     // Integer
+               case  4: ios.skipBytes(4);                           break;  // Float
+               case  5:                                                     // Long
+               case  6: ios.skipBytes(8);                           break;  // Double
+               case  7:                                                     // Class
+               case  8: ios.skipBytes(2);                           break;  // String
+               case  9:                                                     // Fieldref
+               case 10:                                                     // Methodref
+               case 11:                                                     // InterfaceMethodref
+               case 12: ios.skipBytes(4);                           break;  // NamedType
+               case 15: ios.skipBytes(3);                           break;  // MethodHandle
+               case 16: ios.skipBytes(2);                           break;  // MethodType
+               case 17:                                                     // Dynamic
+               case 18: ios.skipBytes(4);                           break;  // InvokeDynamic
+               case 19:                                                     // Module
+               case 20: ios.skipBytes(2);                           break;  // Package
+               case -1:
+                  throw new IOException("Constant pool truncated at entry " + i + " (offset " + start + ")");
+               default:
+                  throw new IOException("Unknown constant pool tag " + tag + " at entry " + i +
+                     " (offset " + start + ")");
             }
+         } catch (EOFException e) {
+            throw new IOException("Constant pool truncated at entry " + i + " (offset " + start + ")");
+         }
+         poolType[i] = (byte)tag;
 
-            // read in the constant
-            pool[i] = (Pool)myConstructor.newInstance(new Object[] {ios, this});
-
-            // skip over entries for types long and double (they occupy two indexes in constant pool)
-            for (int n = 1; n < Integer.parseInt((String)dispatch[poolType[i]][1]); n++) {
-               pool[i+1] = pool[i];
-               i = i + 1;
+         // skip over entries for types long and double (they occupy two indexes in constant pool)
+         if ((tag == 5) || (tag == 6)) {
+            if (i + 1 >= count) {
+               throw new IOException("Constant pool entry " + i + " (offset " + start + ") overruns the pool");
             }
+            poolType[i+1] = poolType[i];
+            offset[i+1] = offset[i];
+            i = i + 1;
+         }
+      }
+   }
 
-         } catch (InstantiationException e) {
-            throw new IOException("InstantiationException");
-         } catch (IllegalAccessException e) {
-            throw new IOException("IllegalAccessException");
-         } catch (InvocationTargetException e) {
-            throw new IOException("InvocationTargetException");
+   /*-----------------------------------------------------------------------
+    - Method:        get                                                   -
+    -                                                                      -
+    - Desc:          constant at the index (decoded the first time used).  -
+    -                threads may race to decode the same constant, and     -
+    -                each gets an equal copy.  a copy stored by another    -
+    -                thread is safe to use: the fields read from the class -
+    -                file are final, and the rest are memos (the string    -
+    -                forms built when first needed) that a thread may find -
+    -                unset and build again.  that race is benign only      -
+    -                because the memos are Strings, which are immutable    -
+    -                and safe to publish without a lock - a memo of a      -
+    -                mutable type would need a volatile field.  the        -
+    -                descriptor and attribute handler tables are filled    -
+    -                the same way                                          -
+    -----------------------------------------------------------------------*/
+   private Pool get(int cptIndex) {
+      Pool retVal = pool[cptIndex];
+      if (retVal == null) {
+         retVal = decode(cptIndex);
+         pool[cptIndex] = retVal;
+      }
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        decode                                                -
+    -                                                                      -
+    - Desc:          read the constant at the index from the class bytes   -
+    -----------------------------------------------------------------------*/
+   private Pool decode(int cptIndex) {
+      ClassBuffer ios = source.at(offset[cptIndex]);
+      try {
+         switch (poolType[cptIndex]) {
+            case  1: return new Pool_Utf8(ios, this);
+            case  2: return new Pool_Unicode(ios, this);
+            case  3: return new Pool_Integer(ios, this);
+            case  4: return new Pool_Float(ios, this);
+            case  5: return new Pool_Long(ios, this);
+            case  6: return new Pool_Double(ios, this);
+            case  7: return new Pool_Class(ios, this);
+            case  8: return new Pool_String(ios, this);
+            case  9: return new Pool_Fieldref(ios, this);
+            case 10: return new Pool_Methodref(ios, this);
+            case 11: return new Pool_InterfaceMethodref(ios, this);
+            case 12: return new Pool_NamedType(ios, this);
+            case 15: return new Pool_MethodHandle(ios, this);
+            case 16: return new Pool_MethodType(ios, this);
+            case 17: return new Pool_Dynamic(ios, this);
+            case 18: return new Pool_InvokeDynamic(ios, this);
+            case 19: return new Pool_Module(ios, this);
+            case 20: return new Pool_Package(ios, this);
+            default: return null;
          }
+      } catch (IOException e) {
+         // the bounds of every constant were checked when the pool was scanned
+         throw new IllegalStateException("Constant pool entry " + cptIndex + ": " + e.getMessage());
       }
    }
 
@@ -78,7 +166,65 @@ class Pool_Collection {
          System.out.println("Index error for constant pool table: " + cptIndex);
          return "";
       }
-      return pool[cptIndex].toString();
+      return get(cptIndex).toString();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getCount                                              -
+    -                                                                      -
+    - Desc:          number of entries in the table (entry 0 is unused)    -
+    -----------------------------------------------------------------------*/
+   int getCount() {
+      return count;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getOptions                                            -
+    -                                                                      -
+    - Desc:          options of the run that the class is read with        -
+    -----------------------------------------------------------------------*/
+   Class_Options getOptions() {
+      return options;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getSymbols                                            -
+    -                                                                      -
+    - Desc:          symbol table the constants are interned in            -
+    -----------------------------------------------------------------------*/
+   Symbol_Table getSymbols() {
+      return symbols;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getTag                                                -
+    -                                                                      -
+    - Desc:          type of the constant at the index (0 if none)         -
+    -----------------------------------------------------------------------*/
+   int getTag(int cptIndex) {
+      if ((cptIndex <= 0) || (cptIndex >= count)) return 0;
+      return poolType[cptIndex];
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getAttributeFactory                                   -
+    -                                                                      -
+    - Desc:          attribute handler previously resolved for the name    -
+    -----------------------------------------------------------------------*/
+   Attribute_Factory getAttributeFactory(int cptIndex) {
+      if ((attributeFactory == null) || (cptIndex <= 0) || (cptIndex >= count)) return null;
+      return attributeFactory[cptIndex];
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        setAttributeFactory                                   -
+    -                                                                      -
+    - Desc:          remember the attribute handler resolved for the name  -
+    -----------------------------------------------------------------------*/
+   void setAttributeFactory(int cptIndex, Attribute_Factory factory) {
+      if ((cptIndex <= 0) || (cptIndex >= count)) return;
+      if (attributeFactory == null) attributeFactory = new Attribute_Factory[count];
+      attributeFactory[cptIndex] = factory;
    }
 
    /*-----------------------------------------------------------------------
@@ -87,7 +233,7 @@ class Pool_Collection {
     - Desc:          test if a class field is being referenced             -
     -----------------------------------------------------------------------*/
    boolean isFieldref(int cptIndex) {
-      return pool[cptIndex].isFieldref();
+      return get(cptIndex).isFieldref();
    }
 
    /*-----------------------------------------------------------------------
@@ -96,7 +242,7 @@ class Pool_Collection {
     - Desc:          test if a class method is being referenced            -
     -----------------------------------------------------------------------*/
    boolean isMethodref(int cptIndex) {
-      return pool[cptIndex].isMethodref();
+      return get(cptIndex).isMethodref();
    }
 
    /*-----------------------------------------------------------------------
@@ -105,7 +251,7 @@ class Pool_Collection {
     - Desc:          test if an interface method is being referenced       -
     -----------------------------------------------------------------------*/
    boolean isInterfaceMethodref(int cptIndex) {
-      return pool[cptIndex].isInterfaceMethodref();
+      return get(cptIndex).isInterfaceMethodref();
    }
 
    /*-----------------------------------------------------------------------
@@ -114,7 +260,7 @@ class Pool_Collection {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    String browseString(int cptIndex) {
-      return pool[cptIndex].browseString();
+      return get(cptIndex).browseString();
    }
 
    /*-----------------------------------------------------------------------
@@ -123,32 +269,63 @@ class Pool_Collection {
     - Desc:          return string representation of type descriptor       -
     -----------------------------------------------------------------------*/
    String browseDescriptor(int cptIndex) {
-      return pool[cptIndex].browseDescriptor();
-   }
-
-   /*-----------------------------------------------------------------------
-    - Field:         dispatch                                              -
-    -                                                                      -
-    - Desc:          array used to dispatch for object instantiation       -
-    -                   element[i][0] = constant type                      -
-    -                   element[i][1] = entries occupied constant          -
-    -                   element[i][2] = class name that handles attribute  -
-    -----------------------------------------------------------------------*/
-   private static Object[][] dispatch = {
-      {"0",  "1", null},
-      {"1",  "1", Pool_Utf8.class},
-      {"2",  "1", Pool_Unicode.class},
-      {"3",  "1", Pool_Integer.class},
-      {"4",  "1", Pool_Float.class},
-      {"5",  "2", Pool_Long.class},
-      {"6",  "2", Pool_Double.class},
-      {"7",  "1", Pool_Class.class},
-      {"8",  "1", Pool_String.class},
-      {"9",  "1", Pool_Fieldref.class},
-      {"10", "1", Pool_Methodref.class},
-      {"11", "1", Pool_InterfaceMethodref.class},
-      {"12", "1", Pool_NamedType.class}
-   };
+      return getDescriptor(cptIndex).toString();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getDescriptor                                         -
+    -                                                                      -
+    - Desc:          parsed type descriptor (parsed the first time used)   -
+    -----------------------------------------------------------------------*/
+   Descriptor getDescriptor(int cptIndex) {
+      if (descriptor == null) descriptor = new Descriptor[count];
+      Descriptor retVal = descriptor[cptIndex];
+      if (retVal == null) {
+         retVal = symbols.descriptor(browseString(cptIndex));
+         descriptor[cptIndex] = retVal;
+      }
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        classReferences                                       -
+    -                                                                      -
+    - Desc:          add the classes named by the class, name-and-type and -
+    -                method type constants to the set (internal names -    -
+    -                an array class adds its element class)                -
+    -----------------------------------------------------------------------*/
+   void classReferences(java.util.Set<String> refs) {
+      for (int i = 1; i < count; i++) {
+         switch (poolType[i]) {
+            case  7:
+               // the raw name - toString escapes chars outside printable ascii
+               int nameIndex = ((Pool_Class)get(i)).getNameIndex();
+               if (getTag(nameIndex) != 1) break;
+               String name = browseString(nameIndex);
+               if (name.startsWith("[")) {
+                  java.util.Collections.addAll(refs, symbols.descriptor(name).classes);
+               } else {
+                  refs.add(name);
+               }
+               break;
+            case 12:
+               descriptorReferences(((Pool_NamedType)get(i)).getDescriptorIndex(), refs);
+               break;
+            case 16:
+               descriptorReferences(((Pool_MethodType)get(i)).getDescriptorIndex(), refs);
+               break;
+         }
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        descriptorReferences                                  -
+    -                                                                      -
+    - Desc:          add the classes named by the descriptor to the set    -
+    -----------------------------------------------------------------------*/
+   void descriptorReferences(int cptIndex, java.util.Set<String> refs) {
+      java.util.Collections.addAll(refs, getDescriptor(cptIndex).classes);
+   }
 }
 
 /*=======================================================================
@@ -157,7 +334,7 @@ class Pool_Collection {
  = Desc:          abstract class for constant entries                   =
  =======================================================================*/
 abstract class Pool {
-   protected Pool_Collection pool;     // store of constant pool table for use by cross-ref'd constants
+   protected final Pool_Collection pool; // store of constant pool table for use by cross-ref'd constants
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
@@ -174,88 +351,45 @@ abstract class Pool {
     - Desc:          replace unprintable chars with octal constant (\xxx)  -
     -----------------------------------------------------------------------*/
    static String escapeString(String raw) {
-      String retVal = raw;
-      for (int i = 0; i < retVal.length(); i++) {
-         if ((retVal.charAt(i) < ' ') || (retVal.charAt(i) > '~') || (retVal.charAt(i) == '\"')) {
-            String s = Integer.toOctalString(retVal.charAt(i));
-            while (s.length() < 3) s = '0' + s;
-            s = '\\' + s;
-            if (i > 0) {
-               retVal = retVal.substring(0, i) + s + retVal.substring(i+1);
-            } else {
-               retVal = s + retVal.substring(i+1);
-            }
+      // find the first char that needs escaping - most strings have none
+      int length = raw.length();
+      int i = 0;
+      while ((i < length) && !mustEscape(raw.charAt(i))) i++;
+      if (i == length) return raw;
+
+      // copy the string across, escaping as we go
+      StringBuilder retVal = new StringBuilder(length + 16);
+      retVal.append(raw, 0, i);
+      for (; i < length; i++) {
+         char c = raw.charAt(i);
+         if (mustEscape(c)) {
+            retVal.append('\\');
+            if (c < 0100) retVal.append('0');
+            if (c < 010) retVal.append('0');
+            retVal.append(Integer.toOctalString(c));
+         } else {
+            retVal.append(c);
          }
       }
-      return retVal;
+      return retVal.toString();
    }
 
    /*-----------------------------------------------------------------------
-    - Method:        browseDescriptor                                      -
+    - Method:        mustEscape                                            -
     -                                                                      -
-    - Desc:          convert the descriptor to resemble java code          -
+    - Desc:          test if char is written as an octal constant          -
     -----------------------------------------------------------------------*/
-   String browseDescriptor(String s) {
-      String funstring = "";           // function or field name
-      String typestring = "";          // type of the function or field
-      String arraystring = "";         // array indexes of the type descriptor
-      int i = 0;                       // index used to traverse the string
-
-      // pull off the function parameters
-      if (s.charAt(0) == '(') {
-         funstring = " (" + browseDescriptor(s.substring(1)) + ")";
-         s = s.substring(s.indexOf(')') + 1);
-      }
-
-      // pull off the array indexes
-      while (s.charAt(i) == '[') {
-         i++;
-         arraystring = arraystring + "[]";
-      }
-
-      // get the types
-      switch (s.charAt(i++)) {
-         case 'Z': typestring = "boolean"; break;
-         case 'B': typestring = "byte";    break;
-         case 'C': typestring = "char";    break;
-         case 'S': typestring = "short";   break;
-         case 'I': typestring = "int";     break;
-         case 'J': typestring = "long";    break;
-         case 'F': typestring = "float";   break;
-         case 'D': typestring = "double";  break;
-         case 'V': typestring = "void";    break;
-         case 'L':
-            // object type
-            int j = s.indexOf(';');
-            typestring = s.substring(i, j).replace('/', '.');
-            i = j;
-            break;
-         case ')':
-            // end of the function parameters
-            i = i - 1;
-            break;
-      }
-
-      // go past semicolons
-      while ((s.length() > i) && (s.charAt(i) == ';')) i++;
-
-      // if end of string then return
-      if (s.length() <= i) return typestring + arraystring + funstring;
-
-      // if end of function parameters then return
-      if (s.charAt(i) == ')') return typestring + arraystring + funstring;
-
-      // return the results
-      return typestring + arraystring + ", " + browseDescriptor(s.substring(i)) + funstring;
+   static boolean mustEscape(char c) {
+      return (c < ' ') || (c > '~') || (c == '\"');
    }
 
    /*-----------------------------------------------------------------------
     - Method:        browseDescriptor                                      -
     -                                                                      -
-    - Desc:          overload the function to allow external calls         -
+    - Desc:          convert the descriptor to resemble java code          -
     -----------------------------------------------------------------------*/
    String browseDescriptor() {
-      return browseDescriptor(this.browseString());
+      return pool.getSymbols().descriptor(this.browseString()).toString();
    }
 
    /*-----------------------------------------------------------------------
@@ -301,32 +435,59 @@ abstract class Pool {
  = Desc:          UTF-8 encoded string constant                         =
  =======================================================================*/
 class Pool_Utf8 extends Pool {
-   private String value = "";          // value of UTF-8 string constant
+   private final String value;         // value of UTF-8 string constant (the symbol table's copy)
+   private String escaped;             // value with unprintable chars escaped (built when first needed)
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read UTF-8 constant from the input stream             -
     -----------------------------------------------------------------------*/
-   Pool_Utf8(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_Utf8(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
-      short length = ios.readShort();
-      for (int i = 0; i < length; i++) {
-         int a = ios.read();
-         if ((a & 0x80) == 0) {
-            value = value + (char)a;
+      int length = ios.readUnsignedShort();
+      int start = ios.pos;
+      ios.skipBytes(length);
+      value = pool.getSymbols().canonical(decode(ios.buf, start, length));
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        decode                                                -
+    -                                                                      -
+    - Desc:          convert modified UTF-8 bytes to a string in one pass. -
+    -                characters outside the basic plane arrive as a pair   -
+    -                of 3-byte surrogates and come out as that pair        -
+    -----------------------------------------------------------------------*/
+   static String decode(byte[] buf, int offset, int length) {
+      int end = offset + length;
+      int i = offset;
+
+      // find the end of the leading run of 7-bit ascii characters
+      while ((i < end) && (buf[i] >= 0)) i++;
+
+      // all ascii - let the string copy the bytes across in bulk
+      if (i == end) return new String(buf, offset, length, StandardCharsets.ISO_8859_1);
+
+      // never more chars than bytes
+      char[] chars = new char[length];
+      int n = 0;
+      for (int j = offset; j < i; j++) chars[n++] = (char)buf[j];
+
+      // decode the rest of the string
+      while (i < end) {
+         int a = buf[i++] & 0xff;
+         if (a < 0x80) {
+            chars[n++] = (char)a;
          } else if ((a & 0x20) == 0) {
-            int b = ios.read();
-            value = value + (char)(((a & 0x1f) << 6) + (b & 0x3f));
-            i++;
+            int b = (i < end) ? buf[i++] : 0;
+            chars[n++] = (char)(((a & 0x1f) << 6) + (b & 0x3f));
          } else {
-            int b = ios.read();
-            int c = ios.read();
-            value = value + (char)(((a & 0xf) << 12) + ((b & 0x3f) << 6) + (c & 0x3f));
-            i += 2;
+            int b = (i < end) ? buf[i++] : 0;
+            int c = (i < end) ? buf[i++] : 0;
+            chars[n++] = (char)(((a & 0xf) << 12) + ((b & 0x3f) << 6) + (c & 0x3f));
          }
       }
-      value = escapeString(value);
+      return new String(chars, 0, n);
    }
 
    /*-----------------------------------------------------------------------
@@ -335,6 +496,16 @@ class Pool_Utf8 extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    public String toString() {
+      if (escaped == null) escaped = escapeString(value);
+      return escaped;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseString                                          -
+    -                                                                      -
+    - Desc:          return the raw (unescaped) value of the constant      -
+    -----------------------------------------------------------------------*/
+   String browseString() {
       return value;
    }
 }
@@ -345,20 +516,22 @@ class Pool_Utf8 extends Pool {
  = Desc:          Unicode string constant                               =
  =======================================================================*/
 class Pool_Unicode extends Pool {
-   private String value = "";          // value of unicode string constant
+   private final String value;         // value of unicode string constant (the symbol table's copy)
+   private String escaped;             // value with unprintable chars escaped (built when first needed)
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read unicode constant from the input stream           -
     -----------------------------------------------------------------------*/
-   Pool_Unicode(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_Unicode(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
-      short length = ios.readShort();
+      int length = ios.readUnsignedShort();
+      char[] chars = new char[length];
       for (int i = 0; i < length; i++) {
-         value = value + ios.readChar();
+         chars[i] = ios.readChar();
       }
-      value = escapeString(value);
+      value = pool.getSymbols().canonical(new String(chars));
    }
 
    /*-----------------------------------------------------------------------
@@ -367,6 +540,16 @@ class Pool_Unicode extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    public String toString() {
+      if (escaped == null) escaped = escapeString(value);
+      return escaped;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseString                                          -
+    -                                                                      -
+    - Desc:          return the raw (unescaped) value of the constant      -
+    -----------------------------------------------------------------------*/
+   String browseString() {
       return value;
    }
 }
@@ -377,14 +560,14 @@ class Pool_Unicode extends Pool {
  = Desc:          Integer constant                                      =
  =======================================================================*/
 class Pool_Integer extends Pool {
-   private int value;                  // value of int constant
+   private final int value;            // value of int constant
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read integer constant from the input stream           -
     -----------------------------------------------------------------------*/
-   Pool_Integer(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_Integer(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
       value = ios.readInt();
    }
@@ -405,14 +588,14 @@ class Pool_Integer extends Pool {
  = Desc:          Float constant                                        =
  =======================================================================*/
 class Pool_Float extends Pool {
-   private float value;                // value of float constant
+   private final float value;          // value of float constant
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read float constant from the input stream             -
     -----------------------------------------------------------------------*/
-   Pool_Float(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_Float(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
       value = ios.readFloat();
    }
@@ -433,14 +616,14 @@ class Pool_Float extends Pool {
  = Desc:          Long constant                                         =
  =======================================================================*/
 class Pool_Long extends Pool {
-   private long value;                 // value of long constant
+   private final long value;           // value of long constant
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read long constant from the input stream              -
     -----------------------------------------------------------------------*/
-   Pool_Long(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_Long(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
       value = ios.readLong();
    }
@@ -461,14 +644,14 @@ class Pool_Long extends Pool {
  = Desc:          Double constant                                       =
  =======================================================================*/
 class Pool_Double extends Pool {
-   private double value;               // value of double constant
+   private final double value;         // value of double constant
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read double constant from the input stream            -
     -----------------------------------------------------------------------*/
-   Pool_Double(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_Double(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
       value = ios.readDouble();
    }
@@ -489,16 +672,17 @@ class Pool_Double extends Pool {
  = Desc:          Class constant                                        =
  =======================================================================*/
 class Pool_Class extends Pool {
-   private short index;                // class constant (index into constant pool table)
+   private final int index;            // class constant (index into constant pool table)
+   private String browseValue;         // class name with '.' separators (built when first needed)
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read class constant from the input stream             -
     -----------------------------------------------------------------------*/
-   Pool_Class(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_Class(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
-      index = ios.readShort();
+      index = ios.readUnsignedShort();
    }
 
    /*-----------------------------------------------------------------------
@@ -516,7 +700,17 @@ class Pool_Class extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    String browseString() {
-      return toString().replace('/', '.');
+      if (browseValue == null) browseValue = pool.getSymbols().canonical(pool.browseString(index).replace('/', '.'));
+      return browseValue;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getNameIndex                                          -
+    -                                                                      -
+    - Desc:          index of the class name in the constant pool          -
+    -----------------------------------------------------------------------*/
+   int getNameIndex() {
+      return index;
    }
 }
 
@@ -526,16 +720,17 @@ class Pool_Class extends Pool {
  = Desc:          String constant                                       =
  =======================================================================*/
 class Pool_String extends Pool {
-   private short index;                // constant string (index into constant pool table)
+   private final int index;            // constant string (index into constant pool table)
+   private String value;               // quoted string (built when first needed)
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read string constant from the input stream            -
     -----------------------------------------------------------------------*/
-   Pool_String(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_String(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
-      index = ios.readShort();
+      index = ios.readUnsignedShort();
    }
 
    /*-----------------------------------------------------------------------
@@ -544,7 +739,8 @@ class Pool_String extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    public String toString() {
-      return "\"" + pool.toString(index) + "\"";
+      if (value == null) value = "\"" + pool.toString(index) + "\"";
+      return value;
    }
 }
 
@@ -554,18 +750,20 @@ class Pool_String extends Pool {
  = Desc:          Class field reference constant                        =
  =======================================================================*/
 class Pool_Fieldref extends Pool {
-   private short classIndex;           // class name (index into the constant pool table)
-   private short namedtypeIndex;       // return type and parameters (index into the constant pool table)
+   private final int classIndex;       // class name (index into the constant pool table)
+   private final int namedtypeIndex;   // return type and parameters (index into the constant pool table)
+   private String value;               // string representation (built when first needed)
+   private String browseValue;         // browse representation (built when first needed)
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read fieldref constant from the input stream          -
     -----------------------------------------------------------------------*/
-   Pool_Fieldref(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_Fieldref(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
-      classIndex = ios.readShort();
-      namedtypeIndex = ios.readShort();
+      classIndex = ios.readUnsignedShort();
+      namedtypeIndex = ios.readUnsignedShort();
    }
 
    /*-----------------------------------------------------------------------
@@ -574,7 +772,8 @@ class Pool_Fieldref extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    public String toString() {
-      return pool.toString(classIndex) + "/" + pool.toString(namedtypeIndex);
+      if (value == null) value = pool.toString(classIndex) + "/" + pool.toString(namedtypeIndex);
+      return value;
    }
 
    /*-----------------------------------------------------------------------
@@ -583,6 +782,16 @@ class Pool_Fieldref extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    String browseString() {
+      if (browseValue == null) browseValue = pool.getSymbols().canonical(browseResolve());
+      return browseValue;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseResolve                                         -
+    -                                                                      -
+    - Desc:          build the browse representation of the constant       -
+    -----------------------------------------------------------------------*/
+   private String browseResolve() {
       int i;
       String s;
       String fieldType;
@@ -615,18 +824,20 @@ class Pool_Fieldref extends Pool {
  = Desc:          Class method reference constant                       =
  =======================================================================*/
 class Pool_Methodref extends Pool {
-   private short classIndex;           // class name (index into the constant pool table)
-   private short namedtypeIndex;       // return type and parameters (index into the constant pool table)
+   private final int classIndex;       // class name (index into the constant pool table)
+   private final int namedtypeIndex;   // return type and parameters (index into the constant pool table)
+   private String value;               // string representation (built when first needed)
+   private String browseValue;         // browse representation (built when first needed)
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read methodref constant from the input stream         -
     -----------------------------------------------------------------------*/
-   Pool_Methodref(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_Methodref(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
-      classIndex = ios.readShort();
-      namedtypeIndex = ios.readShort();
+      classIndex = ios.readUnsignedShort();
+      namedtypeIndex = ios.readUnsignedShort();
    }
 
    /*-----------------------------------------------------------------------
@@ -635,7 +846,8 @@ class Pool_Methodref extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    public String toString() {
-      return pool.toString(classIndex) + "/" + pool.toString(namedtypeIndex);
+      if (value == null) value = pool.toString(classIndex) + "/" + pool.toString(namedtypeIndex);
+      return value;
    }
 
    /*-----------------------------------------------------------------------
@@ -644,6 +856,16 @@ class Pool_Methodref extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    String browseString() {
+      if (browseValue == null) browseValue = pool.getSymbols().canonical(browseResolve());
+      return browseValue;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseResolve                                         -
+    -                                                                      -
+    - Desc:          build the browse representation of the constant       -
+    -----------------------------------------------------------------------*/
+   private String browseResolve() {
       String s = pool.browseString(namedtypeIndex);
       int i = s.indexOf(' ');
       int j = s.indexOf('(');
@@ -676,18 +898,20 @@ class Pool_Methodref extends Pool {
  = Desc:          Interface method reference constant                   =
  =======================================================================*/
 class Pool_InterfaceMethodref extends Pool {
-   private short classIndex;           // class name (index into the constant pool table)
-   private short namedtypeIndex;       // return type and parameters (index into the constant pool table)
+   private final int classIndex;       // class name (index into the constant pool table)
+   private final int namedtypeIndex;   // return type and parameters (index into the constant pool table)
+   private String value;               // string representation (built when first needed)
+   private String browseValue;         // browse representation (built when first needed)
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read interfacemethodref constant from input stream    -
     -----------------------------------------------------------------------*/
-   Pool_InterfaceMethodref(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_InterfaceMethodref(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
-      classIndex = ios.readShort();
-      namedtypeIndex = ios.readShort();
+      classIndex = ios.readUnsignedShort();
+      namedtypeIndex = ios.readUnsignedShort();
    }
 
    /*-----------------------------------------------------------------------
@@ -696,7 +920,8 @@ class Pool_InterfaceMethodref extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    public String toString() {
-      return pool.toString(classIndex) + "/" + pool.toString(namedtypeIndex);
+      if (value == null) value = pool.toString(classIndex) + "/" + pool.toString(namedtypeIndex);
+      return value;
    }
 
    /*-----------------------------------------------------------------------
@@ -705,6 +930,16 @@ class Pool_InterfaceMethodref extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    String browseString() {
+      if (browseValue == null) browseValue = pool.getSymbols().canonical(browseResolve());
+      return browseValue;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseResolve                                         -
+    -                                                                      -
+    - Desc:          build the browse representation of the constant       -
+    -----------------------------------------------------------------------*/
+   private String browseResolve() {
       String s = pool.browseString(namedtypeIndex);
       int i = s.indexOf(' ');
       int j = s.indexOf('(');
@@ -737,18 +972,20 @@ class Pool_InterfaceMethodref extends Pool {
  = Desc:          Class name and type constant                          =
  =======================================================================*/
 class Pool_NamedType extends Pool {
-   private short nameIndex;            // field or class name (index into the constant pool table)
-   private short descriptorIndex;      // return type and parameters (index into the constant pool table)
+   private final int nameIndex;        // field or class name (index into the constant pool table)
+   private final int descriptorIndex; // return type and parameters (index into the constant pool table)
+   private String value;               // string representation (built when first needed)
+   private String browseValue;         // browse representation (built when first needed)
 
    /*-----------------------------------------------------------------------
     - Method:        Class Constructor                                     -
     -                                                                      -
     - Desc:          read namedtype constant from the input stream         -
     -----------------------------------------------------------------------*/
-   Pool_NamedType(DataInputStream ios, Pool_Collection pool) throws IOException {
+   Pool_NamedType(ClassBuffer ios, Pool_Collection pool) throws IOException {
       super(pool);
-      nameIndex = ios.readShort();
-      descriptorIndex = ios.readShort();
+      nameIndex = ios.readUnsignedShort();
+      descriptorIndex = ios.readUnsignedShort();
    }
 
    /*-----------------------------------------------------------------------
@@ -757,9 +994,12 @@ class Pool_NamedType extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    public String toString() {
-      String s = pool.toString(descriptorIndex);
-      if (s.charAt(0) != '(') s = " " + s;
-      return pool.toString(nameIndex) + s;
+      if (value == null) {
+         String s = pool.toString(descriptorIndex);
+         if (s.charAt(0) != '(') s = " " + s;
+         value = pool.toString(nameIndex) + s;
+      }
+      return value;
    }
 
    /*-----------------------------------------------------------------------
@@ -768,6 +1008,16 @@ class Pool_NamedType extends Pool {
     - Desc:          return string representation of constant              -
     -----------------------------------------------------------------------*/
    String browseString() {
+      if (browseValue == null) browseValue = pool.getSymbols().canonical(browseResolve());
+      return browseValue;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseResolve                                         -
+    -                                                                      -
+    - Desc:          build the browse representation of the constant       -
+    -----------------------------------------------------------------------*/
+   private String browseResolve() {
       String s = pool.browseDescriptor(descriptorIndex);
       int i = s.indexOf('(');
       if (i > 0) {
@@ -778,4 +1028,212 @@ class Pool_NamedType extends Pool {
          return s + " " + pool.browseString(nameIndex);
       }
    }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getDescriptorIndex                                    -
+    -                                                                      -
+    - Desc:          index of the type descriptor in the constant pool     -
+    -----------------------------------------------------------------------*/
+   int getDescriptorIndex() {
+      return descriptorIndex;
+   }
+}
+
+/*=======================================================================
+ = Class:         Pool_MethodHandle                                     =
+ =                                                                      =
+ = Desc:          Method handle constant                                =
+ =======================================================================*/
+class Pool_MethodHandle extends Pool {
+   private final int kind;             // reference kind (how the handle behaves)
+   private final int index;            // field or method reference (index into the constant pool table)
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          read method handle constant from the input stream     -
+    -----------------------------------------------------------------------*/
+   Pool_MethodHandle(ClassBuffer ios, Pool_Collection pool) throws IOException {
+      super(pool);
+      kind = ios.readUnsignedByte();
+      index = ios.readUnsignedShort();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        toString                                              -
+    -                                                                      -
+    - Desc:          return string representation of constant              -
+    -----------------------------------------------------------------------*/
+   public String toString() {
+      String s = "unknown";
+      if (kind < kindMap.length) s = kindMap[kind];
+      return s + " " + pool.toString(index);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Field:         kindMap                                               -
+    -                                                                      -
+    - Desc:          description of the method handle reference kinds      -
+    -----------------------------------------------------------------------*/
+   private static String[] kindMap = {
+      "unknown",
+      "getfield",
+      "getstatic",
+      "putfield",
+      "putstatic",
+      "invokevirtual",
+      "invokestatic",
+      "invokespecial",
+      "newinvokespecial",
+      "invokeinterface"
+   };
+}
+
+/*=======================================================================
+ = Class:         Pool_MethodType                                       =
+ =                                                                      =
+ = Desc:          Method type constant                                  =
+ =======================================================================*/
+class Pool_MethodType extends Pool {
+   private final int descriptorIndex; // method descriptor (index into the constant pool table)
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          read method type constant from the input stream       -
+    -----------------------------------------------------------------------*/
+   Pool_MethodType(ClassBuffer ios, Pool_Collection pool) throws IOException {
+      super(pool);
+      descriptorIndex = ios.readUnsignedShort();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        toString                                              -
+    -                                                                      -
+    - Desc:          return string representation of constant              -
+    -----------------------------------------------------------------------*/
+   public String toString() {
+      return pool.toString(descriptorIndex);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getDescriptorIndex                                    -
+    -                                                                      -
+    - Desc:          index of the type descriptor in the constant pool     -
+    -----------------------------------------------------------------------*/
+   int getDescriptorIndex() {
+      return descriptorIndex;
+   }
+}
+
+/*=======================================================================
+ = Class:         Pool_Dynamic                                          =
+ =                                                                      =
+ = Desc:          Dynamically computed constant                         =
+ =======================================================================*/
+class Pool_Dynamic extends Pool {
+   private final int bootstrapIndex;   // bootstrap method (index into the BootstrapMethods attribute)
+   private final int namedtypeIndex;   // name and type (index into the constant pool table)
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          read dynamic constant from the input stream           -
+    -----------------------------------------------------------------------*/
+   Pool_Dynamic(ClassBuffer ios, Pool_Collection pool) throws IOException {
+      super(pool);
+      bootstrapIndex = ios.readUnsignedShort();
+      namedtypeIndex = ios.readUnsignedShort();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        toString                                              -
+    -                                                                      -
+    - Desc:          return string representation of constant              -
+    -----------------------------------------------------------------------*/
+   public String toString() {
+      return pool.toString(namedtypeIndex);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        browseString                                          -
+    -                                                                      -
+    - Desc:          return string representation of constant              -
+    -----------------------------------------------------------------------*/
+   String browseString() {
+      return pool.browseString(namedtypeIndex);
+   }
+}
+
+/*=======================================================================
+ = Class:         Pool_InvokeDynamic                                    =
+ =                                                                      =
+ = Desc:          Dynamically computed call site constant               =
+ =======================================================================*/
+class Pool_InvokeDynamic extends Pool_Dynamic {
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          read invokedynamic constant from the input stream     -
+    -----------------------------------------------------------------------*/
+   Pool_InvokeDynamic(ClassBuffer ios, Pool_Collection pool) throws IOException {
+      super(ios, pool);
+   }
+}
+
+/*=======================================================================
+ = Class:         Pool_Module                                           =
+ =                                                                      =
+ = Desc:          Module constant                                       =
+ =======================================================================*/
+class Pool_Module extends Pool {
+   private final int nameIndex;        // module name (index into the constant pool table)
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          read module constant from the input stream            -
+    -----------------------------------------------------------------------*/
+   Pool_Module(ClassBuffer ios, Pool_Collection pool) throws IOException {
+      super(pool);
+      nameIndex = ios.readUnsignedShort();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        toString                                              -
+    -                                                                      -
+    - Desc:          return string representation of constant              -
+    -----------------------------------------------------------------------*/
+   public String toString() {
+      return pool.toString(nameIndex);
+   }
+}
+
+/*=======================================================================
+ = Class:         Pool_Package                                          =
+ =                                                                      =
+ = Desc:          Package constant                                      =
+ =======================================================================*/
+class Pool_Package extends Pool {
+   private final int nameIndex;        // package name (index into the constant pool table)
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          read package constant from the input stream           -
+    -----------------------------------------------------------------------*/
+   Pool_Package(ClassBuffer ios, Pool_Collection pool) throws IOException {
+      super(pool);
+      nameIndex = ios.readUnsignedShort();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        toString                                              -
+    -                                                                      -
+    - Desc:          return string representation of constant              -
+    -----------------------------------------------------------------------*/
+   public String toString() {
+      return pool.toString(nameIndex);
+   }
 }
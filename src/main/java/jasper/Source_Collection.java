@@ -0,0 +1,332 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Source_Collection.java
+ > Purpose:     Class path entries that class files are read from
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+import java.io.*;
+import java.util.zip.*;
+
+/*=======================================================================
+ = Class:         Source_Collection                                     =
+ =                                                                      =
+ = Desc:          the class path.  every entry is indexed once, the     =
+ =                first time a class is looked up, into a table from    =
+ =                class file name (e.g. "java/lang/Object.class") to    =
+ =                the entry that holds it.  entries earlier in the path =
+ =                win over later ones.  the java runtime comes last and =
+ =                is indexed by package (e.g. "java/lang/")             =
+ =======================================================================*/
+class Source_Collection {
+   private Source[] sources;                                // class path entries (in search order)
+   private java.util.HashMap<String, Source> index;         // class file name -> entry holding it
+
+   private static Source_Collection classPath;              // sources for the java class path
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          set up the sources for a class path string            -
+    -----------------------------------------------------------------------*/
+   Source_Collection(String path) {
+      java.util.ArrayList<Source> x = new java.util.ArrayList<Source>();
+      int i = 0;
+      while (i <= path.length()) {
+         int j = path.indexOf(File.pathSeparatorChar, i);
+         if (j < 0) j = path.length();
+         if (j > i) addSource(path.substring(i, j), x);
+         i = j + 1;
+      }
+
+      // runtime classes from the jrt:/ image (java 9 and up) or rt.jar (older jdks)
+      Source jrt = Source_Jrt.open();
+      if (jrt != null) {
+         x.add(jrt);
+      } else {
+         String javaHome = System.getProperty("java.home");
+         if (javaHome != null) addSource(javaHome + File.separatorChar + "lib" + File.separatorChar + "rt.jar", x);
+      }
+
+      sources = x.toArray(new Source[x.size()]);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getClassPath                                          -
+    -                                                                      -
+    - Desc:          sources for the java class path (built once)          -
+    -----------------------------------------------------------------------*/
+   static synchronized Source_Collection getClassPath() {
+      if (classPath == null) classPath = new Source_Collection(System.getProperty("java.class.path", ""));
+      return classPath;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        addSource                                             -
+    -                                                                      -
+    - Desc:          add the class path entry if it exists                 -
+    -----------------------------------------------------------------------*/
+   private static void addSource(String name, java.util.ArrayList<Source> x) {
+      File f = new File(name);
+      if (f.isDirectory()) {
+         x.add(new Source_Directory(f));
+      } else if (f.isFile()) {
+         // I'm assuming that any files specified in the class path must be jars
+         x.add(new Source_Jar(f));
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        getIndex                                              -
+    -                                                                      -
+    - Desc:          index of all the class path entries (built once)      -
+    -----------------------------------------------------------------------*/
+   private synchronized java.util.HashMap<String, Source> getIndex() {
+      if (index == null) {
+         java.util.HashMap<String, Source> x = new java.util.HashMap<String, Source>();
+         for (int i = 0; i < sources.length; i++) sources[i].index(x);
+         index = x;
+      }
+      return index;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        read                                                  -
+    -                                                                      -
+    - Desc:          bytes of the class file (null if not on the path)     -
+    -----------------------------------------------------------------------*/
+   byte[] read(String name) throws IOException {
+      java.util.HashMap<String, Source> index = getIndex();
+      Source source = index.get(name);
+
+      // not a known class file - try the source that holds its package
+      if (source == null) source = index.get(name.substring(0, name.lastIndexOf('/') + 1));
+      if (source == null) return null;
+      return source.read(name);
+   }
+}
+
+/*=======================================================================
+ = Class:         Source                                                =
+ =                                                                      =
+ = Desc:          abstract class for class path entries                 =
+ =======================================================================*/
+abstract class Source {
+
+   /*-----------------------------------------------------------------------
+    - Method:        index                                                 -
+    -                                                                      -
+    - Desc:          add the class files held by the entry to the index    -
+    -                (names already in the index are left alone)           -
+    -----------------------------------------------------------------------*/
+   abstract void index(java.util.HashMap<String, Source> index);
+
+   /*-----------------------------------------------------------------------
+    - Method:        read                                                  -
+    -                                                                      -
+    - Desc:          bytes of the named class file (null if the entry was  -
+    -                found by package and does not hold the class)         -
+    -----------------------------------------------------------------------*/
+   abstract byte[] read(String name) throws IOException;
+}
+
+/*=======================================================================
+ = Class:         Source_Jar                                            =
+ =                                                                      =
+ = Desc:          jar (or zip) file on the class path.  the file stays  =
+ =                open so that classes can be read by random access     =
+ =======================================================================*/
+class Source_Jar extends Source {
+   private File file;                  // jar file
+   private ZipFile zip;                // open jar (null if it could not be opened)
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          remember the jar file                                 -
+    -----------------------------------------------------------------------*/
+   Source_Jar(File file) {
+      this.file = file;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        index                                                 -
+    -                                                                      -
+    - Desc:          add the class files from the jar's central directory  -
+    -----------------------------------------------------------------------*/
+   void index(java.util.HashMap<String, Source> index) {
+      try {
+         zip = new ZipFile(file);
+      } catch (IOException e) {
+         // not a readable jar - skip it like any other missing entry
+         return;
+      }
+      for (java.util.Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements(); ) {
+         ZipEntry entry = e.nextElement();
+         String name = entry.getName();
+         if (!entry.isDirectory() && name.endsWith(".class")) index.putIfAbsent(name, this);
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        read                                                  -
+    -                                                                      -
+    - Desc:          bytes of the named class file                         -
+    -----------------------------------------------------------------------*/
+   byte[] read(String name) throws IOException {
+      ZipEntry entry = zip.getEntry(name);
+      if (entry == null) throw new FileNotFoundException(file + "!/" + name);
+      InputStream ios = zip.getInputStream(entry);
+      try {
+         return ClassFile.readBytes(ios);
+      } finally {
+         ios.close();
+      }
+   }
+}
+
+/*=======================================================================
+ = Class:         Source_Directory                                      =
+ =                                                                      =
+ = Desc:          directory tree on the class path                      =
+ =======================================================================*/
+class Source_Directory extends Source {
+   private File root;                  // top of the directory tree
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          remember the directory                                -
+    -----------------------------------------------------------------------*/
+   Source_Directory(File root) {
+      this.root = root;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        index                                                 -
+    -                                                                      -
+    - Desc:          add the class files found under the directory         -
+    -----------------------------------------------------------------------*/
+   void index(java.util.HashMap<String, Source> index) {
+      index(root, "", index);
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        index                                                 -
+    -                                                                      -
+    - Desc:          walk one directory (prefix is its path from the root) -
+    -----------------------------------------------------------------------*/
+   private void index(File dir, String prefix, java.util.HashMap<String, Source> index) {
+      File[] files = dir.listFiles();
+      if (files == null) return;
+      for (int i = 0; i < files.length; i++) {
+         String name = prefix + files[i].getName();
+         if (files[i].isDirectory()) {
+            index(files[i], name + "/", index);
+         } else if (name.endsWith(".class")) {
+            index.putIfAbsent(name, this);
+         }
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        read                                                  -
+    -                                                                      -
+    - Desc:          bytes of the named class file                         -
+    -----------------------------------------------------------------------*/
+   byte[] read(String name) throws IOException {
+      InputStream ios = new FileInputStream(new File(root, name.replace('/', File.separatorChar)));
+      try {
+         return ClassFile.readBytes(ios);
+      } finally {
+         ios.close();
+      }
+   }
+}
+
+/*=======================================================================
+ = Class:         Source_Jrt                                            =
+ =                                                                      =
+ = Desc:          classes of the running java platform, read from the   =
+ =                jrt:/ runtime image.  indexed by package - a package  =
+ =                is listed under one module (rarely more), so a class  =
+ =                is read straight from /modules/<module>/<class file>  =
+ =======================================================================*/
+class Source_Jrt extends Source {
+   private java.nio.file.FileSystem jrt;                              // runtime image file system
+   private java.util.HashMap<String, String[]> modules =
+      new java.util.HashMap<String, String[]>();                      // package ("java/lang/") -> modules
+
+   /*-----------------------------------------------------------------------
+    - Method:        Class Constructor                                     -
+    -                                                                      -
+    - Desc:          remember the runtime image                            -
+    -----------------------------------------------------------------------*/
+   private Source_Jrt(java.nio.file.FileSystem jrt) {
+      this.jrt = jrt;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        open                                                  -
+    -                                                                      -
+    - Desc:          source for the runtime image (null before java 9)     -
+    -----------------------------------------------------------------------*/
+   static Source_Jrt open() {
+      try {
+         return new Source_Jrt(java.nio.file.FileSystems.getFileSystem(java.net.URI.create("jrt:/")));
+      } catch (RuntimeException e) {
+         // no jrt file system provider (java 8 and older)
+         return null;
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        index                                                 -
+    -                                                                      -
+    - Desc:          add the runtime packages (from /packages/<package>)   -
+    -----------------------------------------------------------------------*/
+   void index(java.util.HashMap<String, Source> index) {
+      try {
+         java.nio.file.DirectoryStream<java.nio.file.Path> packages =
+            java.nio.file.Files.newDirectoryStream(jrt.getPath("/packages"));
+         try {
+            for (java.nio.file.Path p : packages) {
+               java.util.ArrayList<String> x = new java.util.ArrayList<String>();
+               java.nio.file.DirectoryStream<java.nio.file.Path> links = java.nio.file.Files.newDirectoryStream(p);
+               try {
+                  for (java.nio.file.Path link : links) x.add(link.getFileName().toString());
+               } finally {
+                  links.close();
+               }
+               if (x.isEmpty()) continue;
+               String name = p.getFileName().toString().replace('.', '/') + "/";
+               modules.put(name, x.toArray(new String[x.size()]));
+               index.putIfAbsent(name, this);
+            }
+         } finally {
+            packages.close();
+         }
+      } catch (IOException e) {
+         // unreadable image - platform classes will not be found
+         System.out.println(e);
+      }
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        read                                                  -
+    -                                                                      -
+    - Desc:          bytes of the named class file                         -
+    -----------------------------------------------------------------------*/
+   byte[] read(String name) throws IOException {
+      String[] x = modules.get(name.substring(0, name.lastIndexOf('/') + 1));
+      if (x == null) return null;
+      for (int i = 0; i < x.length; i++) {
+         try {
+            return java.nio.file.Files.readAllBytes(jrt.getPath("/modules", x[i], name));
+         } catch (java.nio.file.NoSuchFileException e) {
+            // not in this module - try the next one
+         }
+      }
+      return null;
+   }
+}
@@ -0,0 +1,117 @@
+/* --- Copyright (c) Jasper contributors 2026. All rights reserved. -----------
+ > File:        jasper/Symbol_Table.java
+ > Purpose:     Symbols shared by every class file that is read
+ > Author:      Jasper contributors, October 2026
+ > Version:     1.01
+ */
+package jasper;
+
+/*=======================================================================
+ = Class:         Symbol_Table                                          =
+ =                                                                      =
+ = Desc:          dictionary of names and strings shared by the class   =
+ =                files read with the same Class_Options.  each         =
+ =                distinct string is held once and given an int id, and =
+ =                constant pools keep the table's copy of names such as =
+ =                "java/lang/Object" rather than their own.  safe to    =
+ =                fill from several threads at once, and dropped along  =
+ =                with the options that hold it                         =
+ =======================================================================*/
+final class Symbol_Table {
+   private static final int FIRST_BITS = 6;                 // symbols in the first chunk = 2^FIRST_BITS
+   private static final int FIRST_SIZE = 1 << FIRST_BITS;   //    (each chunk after is twice the size)
+   private static final int CHUNKS = 32 - FIRST_BITS;       // enough chunks for every positive id
+
+   private final java.util.concurrent.ConcurrentHashMap<String, Integer> ids =
+      new java.util.concurrent.ConcurrentHashMap<String, Integer>();        // string -> id
+   private final java.util.concurrent.atomic.AtomicReferenceArray<
+      java.util.concurrent.atomic.AtomicReferenceArray<String>> chunks =
+      new java.util.concurrent.atomic.AtomicReferenceArray<
+         java.util.concurrent.atomic.AtomicReferenceArray<String>>(CHUNKS);   // id -> string (in chunks)
+   private final java.util.concurrent.atomic.AtomicInteger next =
+      new java.util.concurrent.atomic.AtomicInteger();                      // next id to hand out
+   private final java.util.concurrent.ConcurrentHashMap<String, Descriptor> descriptors =
+      new java.util.concurrent.ConcurrentHashMap<String, Descriptor>();     // descriptors already parsed
+
+   /*-----------------------------------------------------------------------
+    - Method:        intern                                                -
+    -                                                                      -
+    - Desc:          id for the string (added to the table if new)         -
+    -----------------------------------------------------------------------*/
+   int intern(String s) {
+      Integer retVal = ids.get(s);
+      if (retVal == null) retVal = ids.computeIfAbsent(s, this::add);
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        get                                                   -
+    -                                                                      -
+    - Desc:          string for the id                                     -
+    -----------------------------------------------------------------------*/
+   String get(int id) {
+      int n = id + FIRST_SIZE;
+      int chunk = 31 - Integer.numberOfLeadingZeros(n) - FIRST_BITS;
+      return chunks.get(chunk).get(n - (FIRST_SIZE << chunk));
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        canonical                                             -
+    -                                                                      -
+    - Desc:          the table's copy of the string                        -
+    -----------------------------------------------------------------------*/
+   String canonical(String s) {
+      return get(intern(s));
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        descriptor                                            -
+    -                                                                      -
+    - Desc:          the shared parsed form of the descriptor string       -
+    -----------------------------------------------------------------------*/
+   Descriptor descriptor(String s) {
+      Descriptor retVal = descriptors.get(s);
+      if (retVal == null) {
+         Descriptor d = new Descriptor(s, this);
+         retVal = descriptors.putIfAbsent(s, d);
+         if (retVal == null) retVal = d;
+      }
+      return retVal;
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        size                                                  -
+    -                                                                      -
+    - Desc:          number of symbols in the table                        -
+    -----------------------------------------------------------------------*/
+   int size() {
+      return next.get();
+   }
+
+   /*-----------------------------------------------------------------------
+    - Method:        add                                                   -
+    -                                                                      -
+    - Desc:          store a new string and hand out its id (called once   -
+    -                per string, while the map holds the key's bin lock).  -
+    -                chunk k holds FIRST_SIZE << k ids, so a chunk is      -
+    -                never copied - the thread that first needs one        -
+    -                installs it, and a thread that loses the race uses    -
+    -                the winner's                                          -
+    -----------------------------------------------------------------------*/
+   private Integer add(String s) {
+      int id = next.getAndIncrement();
+      int n = id + FIRST_SIZE;
+      int chunk = 31 - Integer.numberOfLeadingZeros(n) - FIRST_BITS;
+      java.util.concurrent.atomic.AtomicReferenceArray<String> c = chunks.get(chunk);
+      if (c == null) {
+         c = new java.util.concurrent.atomic.AtomicReferenceArray<String>(FIRST_SIZE << chunk);
+         if (!chunks.compareAndSet(chunk, null, c)) c = chunks.get(chunk);
+      }
+
+      // the map hands the id to other threads only after this returns, but an
+      // id passed along some other way still finds the string - it is
+      // published with an ordered store rather than a plain one
+      c.lazySet(n - (FIRST_SIZE << chunk), s);
+      return id;
+   }
+}
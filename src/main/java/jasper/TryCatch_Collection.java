@@ -21,9 +21,9 @@ class TryCatch_Collection {
     -                                                                      -
     - Desc:          read in the try catch collection from input stream    -
     -----------------------------------------------------------------------*/
-   TryCatch_Collection(DataInputStream ios, Pool_Collection pool) throws IOException {
+   TryCatch_Collection(ClassBuffer ios, Pool_Collection pool) throws IOException {
       // get the number of entries
-      count = ios.readShort();
+      count = ios.readUnsignedShort();
 
       // get the try catch definitions
       trycatches = new TryCatch[count];
@@ -44,7 +44,7 @@ class TryCatch_Collection {
     -                                                                      -
     - Desc:          output the .catch directives to the jasmin file       -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
+   void jasmin(Jasmin_Writer out) throws IOException {
       for (int i = 0; i < count; i++) trycatches[i].jasmin(out);
    }
 }
@@ -66,21 +66,21 @@ class TryCatch {
     -                                                                      -
     - Desc:          read in the try catch definitions from input stream   -
     -----------------------------------------------------------------------*/
-   TryCatch(DataInputStream ios, Pool_Collection pool) throws IOException {
+   TryCatch(ClassBuffer ios, Pool_Collection pool) throws IOException {
       // save off the constant pool table for later use
       this.pool = pool;
 
       // get start pc for the try block
-      startPC = ios.readShort();
+      startPC = ios.readUnsignedShort();
 
       // get end pc for the try block
-      endPC = ios.readShort();
+      endPC = ios.readUnsignedShort();
 
       // get catch handler address
-      handlerPC = ios.readShort();
+      handlerPC = ios.readUnsignedShort();
 
       // get name of the exception being caught (index into constant pool table)
-      catchType = ios.readShort();
+      catchType = ios.readUnsignedShort();
    }
 
    /*-----------------------------------------------------------------------
@@ -104,12 +104,10 @@ class TryCatch {
     -                                                                      -
     - Desc:          output the .catch directive to the jasmin file        -
     -----------------------------------------------------------------------*/
-   void jasmin(PrintStream out) throws IOException {
+   void jasmin(Jasmin_Writer out) throws IOException {
       String catchClass = "all";
       if (catchType > 0) catchClass = pool.toString(catchType);
-      out.println(ClassFile.pad("   .catch", ClassFile.SPACER) + catchClass +
-         " from LABEL0x" + Integer.toHexString(startPC) +
-         " to LABEL0x" + Integer.toHexString(endPC) +
-         " using LABEL0x" + Integer.toHexString(handlerPC));
+      out.print("   .catch").pad(ClassFile.SPACER).print(catchClass);
+      out.print(" from ").label(startPC).print(" to ").label(endPC).print(" using ").label(handlerPC).println();
    }
 }
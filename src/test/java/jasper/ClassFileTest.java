@@ -0,0 +1,535 @@
+package jasper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit test for reading class files from memory.
+ */
+public class ClassFileTest
+    extends TestCase
+{
+    public ClassFileTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( ClassFileTest.class );
+    }
+
+    static byte[] classBytes( Class c ) throws Exception
+    {
+        InputStream in = c.getResourceAsStream( "/" + c.getName().replace( '.', '/' ) + ".class" );
+        try
+        {
+            return ClassFile.readBytes( in );
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    static final String[] POOL = { "T", "java/lang/Object", "()V", "Code", "LineNumberTable", "SourceFile",
+                                   "T.java", "Unknown" };
+
+    /**
+     * Pool index of one of the POOL strings.  Entries 1 and 2 are the Classes for T and
+     * java/lang/Object, the strings follow, then the method names "m0", "m1", ...
+     */
+    static int utf8Index( String s )
+    {
+        return java.util.Arrays.asList( POOL ).indexOf( s ) + 3;
+    }
+
+    static byte[] attribute( String name, byte[] body ) throws Exception
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( bytes );
+        out.writeShort( utf8Index( name ) );
+        out.writeInt( body.length );
+        out.write( body );
+        return bytes.toByteArray();
+    }
+
+    static byte[] bytes( int... b )
+    {
+        byte[] retVal = new byte[b.length];
+        for ( int i = 0; i < b.length; i++ )
+        {
+            retVal[i] = (byte) b[i];
+        }
+        return retVal;
+    }
+
+    /**
+     * Class T with methods m0 .. m(n-1), each with the given code and code attributes.
+     */
+    static byte[] classFile( int methods, byte[] code, byte[][] codeAttributes, byte[][] classAttributes )
+        throws Exception
+    {
+        byte[][] codes = new byte[methods][];
+        java.util.Arrays.fill( codes, code );
+        return classFile( codes, codeAttributes, classAttributes );
+    }
+
+    /**
+     * Class T with a method m&lt;i&gt; for each code[i].
+     */
+    static byte[] classFile( byte[][] code, byte[][] codeAttributes, byte[][] classAttributes )
+        throws Exception
+    {
+        return classFile( code, bytes( 0, 0 ), codeAttributes, classAttributes );
+    }
+
+    /**
+     * Class T with a method m&lt;i&gt; for each code[i], each with the given exception table
+     * (the count and the entries).
+     */
+    static byte[] classFile( byte[][] code, byte[] tryCatches, byte[][] codeAttributes, byte[][] classAttributes )
+        throws Exception
+    {
+        int methods = code.length;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( bytes );
+        out.writeInt( 0xcafebabe );
+        out.writeShort( 0 );
+        out.writeShort( 49 );
+
+        out.writeShort( 3 + POOL.length + methods );
+        out.writeByte( 7 );
+        out.writeShort( utf8Index( "T" ) );
+        out.writeByte( 7 );
+        out.writeShort( utf8Index( "java/lang/Object" ) );
+        for ( int i = 0; i < POOL.length; i++ )
+        {
+            out.writeByte( 1 );
+            out.writeUTF( POOL[i] );
+        }
+        for ( int i = 0; i < methods; i++ )
+        {
+            out.writeByte( 1 );
+            out.writeUTF( "m" + i );
+        }
+
+        out.writeShort( 0x21 );
+        out.writeShort( 1 );
+        out.writeShort( 2 );
+        out.writeShort( 0 );
+        out.writeShort( 0 );
+
+        out.writeShort( methods );
+        for ( int i = 0; i < methods; i++ )
+        {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            DataOutputStream codeOut = new DataOutputStream( body );
+            codeOut.writeShort( 2 );
+            codeOut.writeShort( 1 );
+            codeOut.writeInt( code[i].length );
+            codeOut.write( code[i] );
+            codeOut.write( tryCatches );
+            codeOut.writeShort( codeAttributes.length );
+            for ( int j = 0; j < codeAttributes.length; j++ )
+            {
+                codeOut.write( codeAttributes[j] );
+            }
+
+            out.writeShort( 0x09 );
+            out.writeShort( 3 + POOL.length + i );
+            out.writeShort( utf8Index( "()V" ) );
+            out.writeShort( 1 );
+            out.write( attribute( "Code", body.toByteArray() ) );
+        }
+
+        out.writeShort( classAttributes.length );
+        for ( int i = 0; i < classAttributes.length; i++ )
+        {
+            out.write( classAttributes[i] );
+        }
+        return bytes.toByteArray();
+    }
+
+    static String jasmin( byte[] classFile ) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ClassFile( classFile ).jasmin( out );
+        return out.toString( "UTF-8" );
+    }
+
+    // iconst_0, ifeq 7, goto 7, return
+    static final byte[] BRANCHES = bytes( 0x03, 0x99, 0x00, 0x06, 0xa7, 0x00, 0x03, 0xb1 );
+
+    /**
+     * Instructions and directives of the first method in the jasmin output, with runs of
+     * spaces squeezed to one.
+     */
+    static java.util.List<String> code( String jasmin )
+    {
+        java.util.List<String> retVal = new java.util.ArrayList<String>();
+        String[] lines = jasmin.split( "\\r?\\n" );
+        int i = 0;
+        while ( !lines[i].trim().startsWith( ".limit locals" ) )
+        {
+            i++;
+        }
+        while ( !lines[++i].startsWith( ".end method" ) )
+        {
+            retVal.add( lines[i].trim().replaceAll( " +", " " ) );
+        }
+        return retVal;
+    }
+
+    public void testLabels() throws Exception
+    {
+        String s = jasmin( classFile( 1, BRANCHES, new byte[0][], new byte[0][] ) );
+        assertEquals( java.util.Arrays.asList( "iconst_0", "ifeq LABEL0x7", "goto LABEL0x7", "LABEL0x7:", "return" ),
+                      code( s ) );
+    }
+
+    public void testUnsortedLineNumbers() throws Exception
+    {
+        // the table lists pc 7 first - the lines still come out in code order
+        byte[] lines = bytes( 0, 3, 0, 7, 0, 30, 0, 0, 0, 10, 0, 4, 0, 20 );
+        String s = jasmin( classFile( 1, BRANCHES, new byte[][] { attribute( "LineNumberTable", lines ) },
+                                      new byte[0][] ) );
+        assertEquals( java.util.Arrays.asList( ".line 10", "iconst_0", "ifeq LABEL0x7", ".line 20", "goto LABEL0x7",
+                                               ".line 30", "LABEL0x7:", "return" ), code( s ) );
+    }
+
+    public void testLongMethodCatch() throws Exception
+    {
+        // the try block and handler are past pc 32767 - their labels must still be found
+        byte[] code = new byte[33001];
+        code[33000] = (byte) 0xb1;
+        byte[] tryCatches = bytes( 0, 1, 0x80, 0x02, 0x80, 0x20, 0x80, 0x84, 0, 0 );
+        String s = jasmin( classFile( new byte[][] { code }, tryCatches, new byte[0][], new byte[0][] ) );
+        java.util.List<String> lines = code( s );
+        assertTrue( lines.contains( ".catch all from LABEL0x8002 to LABEL0x8020 using LABEL0x8084" ) );
+        assertTrue( lines.contains( "LABEL0x8002:" ) );
+        assertTrue( lines.contains( "LABEL0x8020:" ) );
+        assertTrue( lines.contains( "LABEL0x8084:" ) );
+    }
+
+    public void testUnknownAttributes() throws Exception
+    {
+        // attributes jasper doesn't know are passed over by their length, whatever they hold
+        byte[] junk = bytes( 0xff, 0x00, 0x07, 0xca, 0xfe );
+        byte[] bytes = classFile( 1, BRANCHES, new byte[][] { attribute( "Unknown", junk ) },
+                                  new byte[][] { attribute( "Unknown", junk ),
+                                      attribute( "SourceFile", bytes( 0, utf8Index( "T.java" ) ) ) } );
+        ClassFile cf = new ClassFile( bytes );
+        assertTrue( cf.isLoaded() );
+        assertEquals( "public T.java", cf.browseSourceFile() );
+        assertEquals( java.util.Arrays.asList( "iconst_0", "ifeq LABEL0x7", "goto LABEL0x7", "LABEL0x7:", "return" ),
+                      code( jasmin( bytes ) ) );
+    }
+
+    /**
+     * Console output while reading the class file with the options.
+     */
+    static String read( byte[] classFile, Class_Options options )
+    {
+        java.io.PrintStream saved = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut( new java.io.PrintStream( out, true ) );
+        try
+        {
+            assertFalse( new ClassFile( classFile, options ).isLoaded() );
+        }
+        finally
+        {
+            System.setOut( saved );
+        }
+        return out.toString();
+    }
+
+    public void testBadCodeDump() throws Exception
+    {
+        // method m40 of 70 ends in a bipush with no operand
+        byte[][] code = new byte[70][];
+        java.util.Arrays.fill( code, BRANCHES );
+        code[40] = bytes( 0x10 );
+        byte[] bytes = classFile( code, new byte[0][], new byte[0][] );
+
+        Class_Options[] options = { new Class_Options(), new Class_Options( false, 4 ) };
+        for ( int i = 0; i < options.length; i++ )
+        {
+            try
+            {
+                String s = read( bytes, options[i] );
+                assertTrue( s, s.indexOf( "Instruction at pc 0 overruns the code" ) >= 0 );
+
+                // the dump starts at m40: public static, name, ()V, one attribute
+                assertTrue( s, s.indexOf( "0       00 09 00 33 00 05 00 01" ) >= 0 );
+            }
+            finally
+            {
+                options[i].close();
+            }
+        }
+    }
+
+    public void testSwitchOverflow() throws Exception
+    {
+        // a lookupswitch of 0x20000001 pairs, and a tableswitch from -2^31 to 2^31-1 - neither
+        // count fits in the code, though count * 8 and high - low + 1 wrap around to small sizes
+        byte[][] code = {
+            bytes( 0xab, 0, 0, 0, 0, 0, 0, 0, 0x20, 0, 0, 0x01, 0xb1 ),
+            bytes( 0xaa, 0, 0, 0, 0, 0, 0, 0, 0x80, 0, 0, 0, 0x7f, 0xff, 0xff, 0xff, 0xb1 ) };
+        for ( int i = 0; i < code.length; i++ )
+        {
+            String s = read( classFile( 1, code[i], new byte[0][], new byte[0][] ), new Class_Options() );
+            assertTrue( s, s.indexOf( "Instruction at pc 0 overruns the code" ) >= 0 );
+        }
+    }
+
+    public void testNegativeCodeLength() throws Exception
+    {
+        // a code_length of 2^32 - 8 reads as -8 - it must not move the read back over the code
+        byte[] bytes = classFile( 1, BRANCHES, new byte[0][], new byte[0][] );
+        int at = 0;
+        while ( bytes[at] != 0 || bytes[at + 3] != 8 || bytes[at + 4] != BRANCHES[0] )
+        {
+            at++;
+        }
+        bytes[at] = (byte) 0xff;
+        bytes[at + 1] = (byte) 0xff;
+        bytes[at + 2] = (byte) 0xff;
+        bytes[at + 3] = (byte) 0xf8;
+
+        String s = read( bytes, new Class_Options() );
+        assertTrue( s, s.indexOf( "Code attribute truncated" ) >= 0 );
+        try
+        {
+            new Class_Reader( bytes ).accept( new Class_Visitor()
+            {
+            } );
+            fail( "negative code length accepted" );
+        }
+        catch ( java.io.IOException e )
+        {
+            assertTrue( e.getMessage(), e.getMessage().startsWith( "Class file truncated" ) );
+        }
+    }
+
+    public void testParallelMethods() throws Exception
+    {
+        // enough methods for them to be split among the workers
+        byte[] bytes = classFile( 70, BRANCHES, new byte[0][], new byte[0][] );
+        Class_Options options = new Class_Options( false, 4 );
+        try
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new ClassFile( bytes, options ).jasmin( out );
+            String s = out.toString( "UTF-8" );
+            assertEquals( jasmin( bytes ), s );
+
+            int at = 0;
+            for ( int i = 0; i < 70; i++ )
+            {
+                int next = s.indexOf( "public static m" + i + "()V", at );
+                assertTrue( "m" + i, next > at );
+                at = next;
+            }
+        }
+        finally
+        {
+            options.close();
+        }
+    }
+
+    /**
+     * Console output of a browse run over the compiled jasper classes.
+     */
+    public void testParallelOutputOrder() throws Exception
+    {
+        // each method loads a constant that isn't in the pool - the errors the workers
+        // print must come out in method order
+        byte[][] code = new byte[70][];
+        for ( int i = 0; i < code.length; i++ )
+        {
+            code[i] = bytes( 0x13, ( 1000 + i ) >> 8, ( 1000 + i ) & 0xff, 0x57, 0xb1 );
+        }
+        byte[] bytes = classFile( code, new byte[0][], new byte[0][] );
+
+        Class_Options options = new Class_Options( false, 4 );
+        java.io.PrintStream saved = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut( new java.io.PrintStream( out, true ) );
+        try
+        {
+            new ClassFile( bytes, options ).jasmin( new ByteArrayOutputStream() );
+        }
+        finally
+        {
+            System.setOut( saved );
+            options.close();
+        }
+        StringBuilder expected = new StringBuilder();
+        for ( int i = 0; i < code.length; i++ )
+        {
+            expected.append( "Index error for constant pool table: " + ( 1000 + i ) ).append( '\n' );
+        }
+        assertEquals( expected.toString(), out.toString().replace( "\r\n", "\n" ) );
+    }
+
+    static String browseRun( int threads ) throws Exception
+    {
+        String classes = new java.io.File( ClassFile.class.getResource( "ClassFile.class" ).toURI() )
+            .getParentFile().getParent();
+        java.io.PrintStream saved = System.out;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut( new java.io.PrintStream( out, true ) );
+        try
+        {
+            Jasper_Run run = new Jasper_Run( false, true, false, false, threads, new Class_List() );
+            try
+            {
+                run.readArchive( classes );
+            }
+            finally
+            {
+                run.close();
+            }
+        }
+        finally
+        {
+            System.out.flush();
+            System.setOut( saved );
+        }
+        return out.toString();
+    }
+
+    public void testThreadedRun() throws Exception
+    {
+        String sequential = browseRun( 1 );
+        assertTrue( sequential.indexOf( "class      = jasper.ClassFile" ) > 0 );
+        assertEquals( sequential, browseRun( 4 ) );
+    }
+
+    public void testByteArray() throws Exception
+    {
+        ClassFile cf = new ClassFile( classBytes( ClassFile.class ) );
+        assertEquals( "jasper.ClassFile", cf.browseClass() );
+        assertEquals( "java.lang.Object", cf.browseSuper() );
+    }
+
+    public void testByteBufferSlice() throws Exception
+    {
+        byte[] bytes = classBytes( Pool_Collection.class );
+        byte[] padded = new byte[bytes.length + 7];
+        System.arraycopy( bytes, 0, padded, 3, bytes.length );
+        ByteBuffer buf = ByteBuffer.wrap( padded, 3, bytes.length ).slice();
+        ClassFile cf = new ClassFile( buf );
+        assertEquals( "jasper.Pool_Collection", cf.browseClass() );
+        assertEquals( 0, buf.position() );
+
+        ByteBuffer direct = ByteBuffer.allocateDirect( bytes.length );
+        direct.put( bytes ).flip();
+        assertEquals( "jasper.Pool_Collection", new ClassFile( direct ).browseClass() );
+    }
+
+    public void testCodeCursor() throws Exception
+    {
+        ClassFile cf = new ClassFile( classBytes( Code_Cursor.class ) );
+        Code_Cursor c = new Code_Cursor();
+        int methods = cf.browseMethods().length;
+        int switches = 0;
+        int invokes = 0;
+        for ( int i = 0; i < methods; i++ )
+        {
+            if ( !cf.codeCursor( i, c ) )
+            {
+                continue;
+            }
+            int pc = 0;
+            while ( c.next() )
+            {
+                assertEquals( pc, c.getPC() );
+                pc += c.getLength();
+                for ( int k = 0; k < c.getSwitchCount(); k++ )
+                {
+                    assertTrue( c.getSwitchTarget( k ) >= 0 && c.getSwitchTarget( k ) < c.getCodeLength() );
+                }
+                if ( c.getSwitchCount() > 0 )
+                {
+                    switches++;
+                    assertTrue( c.getTarget() >= 0 && c.getTarget() < c.getCodeLength() );
+                }
+                if ( c.getOpcode() == 0xb6 || c.getOpcode() == 0xb8 )
+                {
+                    invokes++;
+                    assertTrue( c.getName().startsWith( "invoke" ) );
+                    assertTrue( c.getPoolIndex() > 0 );
+                }
+            }
+            assertEquals( c.getCodeLength(), pc );
+        }
+        assertTrue( switches > 0 );
+        assertTrue( invokes > 0 );
+        assertNull( cf.codeCursor( methods ) );
+    }
+
+    public void testJasminVisitor() throws Exception
+    {
+        Class[] classes = { ClassFile.class, Code_Cursor.class, Class_Reader.class, Jasmin_Visitor.class };
+        for ( int i = 0; i < classes.length; i++ )
+        {
+            byte[] bytes = classBytes( classes[i] );
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            new ClassFile( bytes ).jasmin( expected );
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            new Class_Reader( bytes ).accept( new Jasmin_Visitor( actual ) );
+            assertEquals( expected.toString( "UTF-8" ), actual.toString( "UTF-8" ) );
+        }
+    }
+
+    public void testClassReaderStop() throws Exception
+    {
+        final String[] name = new String[1];
+        final int[] methods = new int[1];
+        Class_Reader reader = new Class_Reader( classBytes( Class_Reader.class ) );
+        reader.accept( new Class_Visitor()
+        {
+            public boolean visitHeader( Class_Reader reader, int minor, int major, int access, int thisClass,
+                                        int superClass )
+            {
+                name[0] = reader.getString( superClass );
+                reader.stop();
+                return true;
+            }
+
+            public boolean visitMethod( int offset, int access, int nameIndex, int descriptorIndex )
+            {
+                methods[0]++;
+                return false;
+            }
+        } );
+        assertEquals( "java/lang/Object", name[0] );
+        assertEquals( 0, methods[0] );
+
+        reader.accept( new Class_Visitor()
+        {
+            public boolean visitMethod( int offset, int access, int nameIndex, int descriptorIndex )
+            {
+                methods[0]++;
+                return false;
+            }
+
+            public boolean visitCode( int offset, int maxStack, int maxLocals, int codeLength )
+            {
+                fail( "code of a skipped method" );
+                return false;
+            }
+        } );
+        assertEquals( new ClassFile( classBytes( Class_Reader.class ) ).browseMethods().length, methods[0] );
+    }
+}
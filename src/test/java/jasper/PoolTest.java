@@ -0,0 +1,255 @@
+package jasper;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit test for constant pool string handling.
+ */
+public class PoolTest
+    extends TestCase
+{
+    public PoolTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( PoolTest.class );
+    }
+
+    static String utf8( int... bytes )
+    {
+        byte[] b = new byte[bytes.length + 2];
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            b[i + 1] = (byte) bytes[i];
+        }
+        return Pool_Utf8.decode( b, 1, bytes.length );
+    }
+
+    public void testAscii()
+    {
+        assertEquals( "", utf8() );
+        assertEquals( "abc", utf8( 'a', 'b', 'c' ) );
+    }
+
+    public void testMultiByte()
+    {
+        // modified UTF-8 encodes the null char in two bytes
+        assertEquals( "a\u0000", utf8( 'a', 0xc0, 0x80 ) );
+        assertEquals( "\u00e9x\u4e2d", utf8( 0xc3, 0xa9, 'x', 0xe4, 0xb8, 0xad ) );
+    }
+
+    public void testSurrogatePairs()
+    {
+        // U+1F600 as a pair of 3-byte surrogates (class file form)
+        assertEquals( "a\ud83d\ude00", utf8( 'a', 0xed, 0xa0, 0xbd, 0xed, 0xb8, 0x80 ) );
+        // the standard 4-byte form is not modified UTF-8 - its lead byte is read as a 3-byte char
+        assertEquals( "\u07d8\"", utf8( 0xf0, 0x9f, 0x98, 0x80, 'b' ) );
+    }
+
+    static Pool_Collection pool( byte[] b )
+        throws java.io.IOException
+    {
+        return new Pool_Collection( new ClassBuffer( b, 0, b.length ), new Class_Options() );
+    }
+
+    /**
+     * escapeString as it was first written - a 3-digit octal escape, spliced in one char at a time.
+     */
+    static String escapeSlowly( String raw )
+    {
+        String retVal = raw;
+        for ( int i = 0; i < retVal.length(); i++ )
+        {
+            char c = retVal.charAt( i );
+            if ( c < ' ' || c > '~' || c == '"' )
+            {
+                String s = Integer.toOctalString( c );
+                while ( s.length() < 3 )
+                {
+                    s = '0' + s;
+                }
+                retVal = retVal.substring( 0, i ) + '\\' + s + retVal.substring( i + 1 );
+            }
+        }
+        return retVal;
+    }
+
+    public void testEscapeString()
+    {
+        assertEquals( "\\000\\012\\042\\177", Pool.escapeString( "\u0000\n\"\u007f" ) );
+        assertEquals( "caf\\351 \\47055 ~", Pool.escapeString( "caf\u00e9 \u4e2d ~" ) );
+
+        // a backslash is printable, so it is left alone
+        assertEquals( "a\\011b\\c", Pool.escapeString( "a\tb\\c" ) );
+
+        // a string with nothing to escape comes back as is
+        String plain = new String( "java/lang/Object ~!" );
+        assertSame( plain, Pool.escapeString( plain ) );
+        assertSame( "", Pool.escapeString( "" ) );
+
+        // the same as the first version for every char, and around others
+        for ( int c = 0; c <= 0xffff; c++ )
+        {
+            String s = "x" + (char) c + "y" + (char) c;
+            assertEquals( escapeSlowly( s ), Pool.escapeString( s ) );
+        }
+    }
+
+    public void testUnknownTag()
+    {
+        // entry 1 is an Integer, entry 2 has a tag no class file uses
+        byte[] b = { 0, 3, 3, 0, 0, 0, 1, 99, 0, 0 };
+        try
+        {
+            pool( b );
+            fail( "tag 99 accepted" );
+        }
+        catch ( java.io.IOException e )
+        {
+            assertEquals( "Unknown constant pool tag 99 at entry 2 (offset 7)", e.getMessage() );
+        }
+    }
+
+    public void testLargePool()
+    {
+        // 40001 entries - the count and the class index are past 32767
+        java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+        out.write( 40001 >> 8 );
+        out.write( 40001 & 0xff );
+        for ( int i = 1; i < 39998; i++ )
+        {
+            out.write( 3 );
+            out.write( new byte[4], 0, 4 );
+        }
+        out.write( 1 );
+        out.write( 0 );
+        out.write( 3 );
+        out.write( new byte[] { 'B', 'i', 'g' }, 0, 3 );
+        out.write( 7 );
+        out.write( 39998 >> 8 );
+        out.write( 39998 & 0xff );
+        out.write( 1 );
+        out.write( 0 );
+        out.write( 10 );
+        out.write( new byte[] { 'S', 'o', 'u', 'r', 'c', 'e', 'F', 'i', 'l', 'e' }, 0, 10 );
+
+        // a SourceFile attribute whose name and value are past 32767 too
+        out.write( new byte[] { 0, 1, (byte) ( 40000 >> 8 ), (byte) ( 40000 & 0xff ), 0, 0, 0, 2,
+                                (byte) ( 39998 >> 8 ), (byte) ( 39998 & 0xff ) }, 0, 10 );
+        byte[] b = out.toByteArray();
+        try
+        {
+            ClassBuffer ios = new ClassBuffer( b, 0, b.length );
+            Pool_Collection p = new Pool_Collection( ios, new Class_Options() );
+            assertEquals( 40001, p.getCount() );
+            assertEquals( "Big", p.browseString( 39999 ) );
+            assertEquals( "Big", new Attribute_Collection( ios, p ).jasminSourceFile() );
+        }
+        catch ( java.io.IOException e )
+        {
+            fail( e.toString() );
+        }
+    }
+
+    public void testClassReferences() throws Exception
+    {
+        // a class name outside ascii, and an array of it
+        java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+        java.io.DataOutputStream out = new java.io.DataOutputStream( bytes );
+        out.writeShort( 5 );
+        out.writeByte( 1 );
+        out.writeUTF( "caf\u00e9/\u4e2d" );
+        out.writeByte( 7 );
+        out.writeShort( 1 );
+        out.writeByte( 1 );
+        out.writeUTF( "[Lcaf\u00e9/\u4e2d;" );
+        out.writeByte( 7 );
+        out.writeShort( 3 );
+
+        java.util.Set<String> refs = new java.util.TreeSet<String>();
+        pool( bytes.toByteArray() ).classReferences( refs );
+        assertEquals( java.util.Collections.singleton( "caf\u00e9/\u4e2d" ), refs );
+    }
+
+    public void testLongString()
+    {
+        StringBuilder expect = new StringBuilder();
+        byte[] b = new byte[3 * 40000];
+        for ( int i = 0; i < 40000; i++ )
+        {
+            b[3 * i] = (byte) 0xe4;
+            b[3 * i + 1] = (byte) 0xb8;
+            b[3 * i + 2] = (byte) 0xad;
+            expect.append( '\u4e2d' );
+        }
+        assertEquals( expect.toString(), Pool_Utf8.decode( b, 0, b.length ) );
+    }
+
+    public void testDescriptor()
+    {
+        Symbol_Table symbols = new Symbol_Table();
+        assertEquals( "int", symbols.descriptor( "I" ).toString() );
+        assertEquals( "java.lang.String[][]", symbols.descriptor( "[[Ljava/lang/String;" ).toString() );
+        assertEquals( "void ()", symbols.descriptor( "()V" ).toString() );
+        assertEquals( "java.lang.Object (int, long[], java.util.Map)",
+                      symbols.descriptor( "(I[JLjava/util/Map;)Ljava/lang/Object;" ).toString() );
+
+        Descriptor d = symbols.descriptor( "(ILjava/lang/String;)V" );
+        assertSame( d, symbols.descriptor( new String( "(ILjava/lang/String;)V" ) ) );
+        assertEquals( 2, d.parameters.length );
+        assertEquals( "java.lang.String", d.parameters[1] );
+        assertEquals( "void", d.types[0] );
+
+        String[] classes = symbols.descriptor( "(Ljava/lang/Long;[[LLong;Ljava/lang/Long;I)LLong;" ).classes;
+        assertEquals( 2, classes.length );
+        assertEquals( "java/lang/Long", classes[0] );
+        assertEquals( "Long", classes[1] );
+        assertEquals( 0, symbols.descriptor( "(IJ)[Z" ).classes.length );
+    }
+
+    public void testSymbolTable() throws Exception
+    {
+        // several threads fill the table at once, well past the first few chunks
+        final Symbol_Table symbols = new Symbol_Table();
+        final int[][] ids = new int[4][20000];
+        Thread[] threads = new Thread[4];
+        for ( int t = 0; t < threads.length; t++ )
+        {
+            final int n = t;
+            threads[t] = new Thread()
+            {
+                public void run()
+                {
+                    for ( int i = 0; i < 20000; i++ )
+                    {
+                        ids[n][i] = symbols.intern( "s" + ( ( i * ( n + 1 ) ) % 20000 ) );
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for ( int t = 0; t < threads.length; t++ )
+        {
+            threads[t].join();
+        }
+
+        assertEquals( 20000, symbols.size() );
+        for ( int t = 0; t < threads.length; t++ )
+        {
+            for ( int i = 0; i < 20000; i++ )
+            {
+                String s = "s" + ( ( i * ( t + 1 ) ) % 20000 );
+                assertEquals( s, symbols.get( ids[t][i] ) );
+                assertEquals( ids[t][i], symbols.intern( s ) );
+            }
+        }
+
+        // a new table starts out empty
+        assertEquals( 0, new Symbol_Table().size() );
+    }
+}
@@ -0,0 +1,154 @@
+package jasper;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Unit test for class path lookups.
+ */
+public class SourceTest
+    extends TestCase
+{
+    private File dir;
+
+    private File jar;
+
+    public SourceTest( String testName )
+    {
+        super( testName );
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite( SourceTest.class );
+    }
+
+    /**
+     * A directory holding p/A.class and p/B.class, and a jar holding p/A.class, p/C.class and
+     * q/D.class.  Each file holds its own name and where it came from.
+     */
+    protected void setUp() throws Exception
+    {
+        dir = File.createTempFile( "source", "" );
+        dir.delete();
+        new File( dir, "p" ).mkdirs();
+        write( new File( dir, "p/A.class" ), "dir p/A.class" );
+        write( new File( dir, "p/B.class" ), "dir p/B.class" );
+
+        jar = File.createTempFile( "source", ".jar" );
+        ZipOutputStream out = new ZipOutputStream( new FileOutputStream( jar ) );
+        try
+        {
+            String[] names = { "p/", "p/A.class", "p/C.class", "q/D.class", "q/readme.txt" };
+            for ( int i = 0; i < names.length; i++ )
+            {
+                out.putNextEntry( new ZipEntry( names[i] ) );
+                out.write( ( "jar " + names[i] ).getBytes( "UTF-8" ) );
+                out.closeEntry();
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    protected void tearDown()
+    {
+        new File( dir, "p/A.class" ).delete();
+        new File( dir, "p/B.class" ).delete();
+        new File( dir, "p" ).delete();
+        dir.delete();
+        jar.delete();
+    }
+
+    static void write( File f, String s ) throws IOException
+    {
+        FileOutputStream out = new FileOutputStream( f );
+        try
+        {
+            out.write( s.getBytes( "UTF-8" ) );
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    static String read( Source_Collection path, String name ) throws IOException
+    {
+        byte[] b = path.read( name );
+        return ( b == null ) ? null : new String( b, "UTF-8" );
+    }
+
+    public void testPathOrder() throws Exception
+    {
+        // the entry earlier in the path wins
+        Source_Collection path = new Source_Collection( dir + File.pathSeparator + jar );
+        assertEquals( "dir p/A.class", read( path, "p/A.class" ) );
+        assertEquals( "dir p/B.class", read( path, "p/B.class" ) );
+        assertEquals( "jar p/C.class", read( path, "p/C.class" ) );
+
+        path = new Source_Collection( jar + File.pathSeparator + dir );
+        assertEquals( "jar p/A.class", read( path, "p/A.class" ) );
+        assertEquals( "dir p/B.class", read( path, "p/B.class" ) );
+
+        // missing entries and empty elements of the path are passed over
+        path = new Source_Collection( File.pathSeparator + new File( dir, "none" ) + File.pathSeparator + jar );
+        assertEquals( "jar p/A.class", read( path, "p/A.class" ) );
+        assertNull( read( path, "p/B.class" ) );
+        assertNull( read( path, "q/readme.txt" ) );
+    }
+
+    public void testJarReads() throws Exception
+    {
+        // the jar stays open, so its classes can be read in any order and more than once
+        Source_Collection path = new Source_Collection( jar.toString() );
+        assertEquals( "jar q/D.class", read( path, "q/D.class" ) );
+        assertEquals( "jar p/A.class", read( path, "p/A.class" ) );
+        assertEquals( "jar q/D.class", read( path, "q/D.class" ) );
+        assertEquals( "jar p/C.class", read( path, "p/C.class" ) );
+        assertNull( read( path, "p/B.class" ) );
+    }
+
+    public void testRuntimeClasses() throws Exception
+    {
+        // runtime classes are found by package - java/awt/ is listed under java.datatransfer
+        // as well as java.desktop, which holds the classes, and java/lang/ under three modules
+        Source_Collection path = new Source_Collection( "" );
+        String[] names = { "java/lang/Object.class", "java/awt/Color.class", "java/awt/Point.class",
+                           "java/util/logging/Logger.class" };
+        for ( int i = 0; i < names.length; i++ )
+        {
+            byte[] b = path.read( names[i] );
+            assertNotNull( names[i], b );
+            assertEquals( names[i], 0xcafebabe, ( ( b[0] & 0xff ) << 24 ) | ( ( b[1] & 0xff ) << 16 )
+                                                | ( ( b[2] & 0xff ) << 8 ) | ( b[3] & 0xff ) );
+        }
+        assertNull( path.read( "java/awt/NoSuchClass.class" ) );
+        assertNull( path.read( "no/such/Package.class" ) );
+
+        // a class on the path is read ahead of the runtime's
+        new File( dir, "java/lang" ).mkdirs();
+        write( new File( dir, "java/lang/Object.class" ), "dir java/lang/Object.class" );
+        try
+        {
+            path = new Source_Collection( dir.toString() );
+            assertEquals( "dir java/lang/Object.class", read( path, "java/lang/Object.class" ) );
+            assertNotNull( path.read( "java/lang/String.class" ) );
+        }
+        finally
+        {
+            new File( dir, "java/lang/Object.class" ).delete();
+            new File( dir, "java/lang" ).delete();
+            new File( dir, "java" ).delete();
+        }
+    }
+}